@@ -0,0 +1,105 @@
+package kenma;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ColumnarTaskList} versus task objects in an {@code ArrayList}: the
+ * retained heap of each (printed once per trial) and unindexed {@code on},
+ * time sort and find scans over them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms12g", "-Xmx12g" })
+public class ColumnarTaskListBenchmark {
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+
+    @Param({ "1000000", "10000000" })
+    public int size;
+
+    private List<Task> objects;
+    private ColumnarTaskList columns;
+
+    @Setup
+    public void load() throws IOException {
+        Path file = Datasets.writeSnapshot(size);
+        long base = retainedBytes();
+        columns = new Storage(file.toString()).loadInto(new ColumnarTaskList(size));
+        long afterColumns = retainedBytes();
+        objects = new Storage(file.toString()).load();
+        long afterObjects = retainedBytes();
+        System.out.printf("%n[heap] %d tasks: objects %d MB, columns %d MB%n", size,
+                (afterObjects - afterColumns) >> 20, (afterColumns - base) >> 20);
+    }
+
+    private static long retainedBytes() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    @Benchmark
+    public int onObjects() {
+        int n = 0;
+        for (Task t : objects) {
+            if ((t instanceof Deadline && ((Deadline) t).occursOn(DAY))
+                    || (t instanceof Event && ((Event) t).occursOn(DAY))) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Benchmark
+    public int onColumns() {
+        return columns.occurringBetween(DAY, DAY).length;
+    }
+
+    @Benchmark
+    public List<Task> sortByTimeObjects() {
+        return new TaskList(objects).sorted(TaskList.SortKey.TIME);
+    }
+
+    @Benchmark
+    public List<Task> sortByTimeColumns() {
+        return columns.sorted(TaskList.SortKey.TIME);
+    }
+
+    @Benchmark
+    public int findObjects() {
+        int n = 0;
+        for (Task t : objects) {
+            if (t.getDescription().toLowerCase().contains("book 12")) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Benchmark
+    public int findColumns() {
+        return columns.find("book 12").size();
+    }
+}
@@ -0,0 +1,90 @@
+package kenma;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic synthetic data for benchmarks: a repeating mix of todos,
+ * deadlines (date and date-time) and events, with unique descriptions so the
+ * duplicate check never rejects a task.
+ */
+final class Datasets {
+    private Datasets() {
+    }
+
+    /** Returns the storage line for the i-th synthetic task. */
+    static String line(int i) {
+        String done = (i % 3 == 0) ? "1" : "0";
+        String day = String.format("2025-%02d-%02d", 1 + i % 12, 1 + i % 28);
+        switch (i % 4) {
+            case 0:
+                return "T | " + done + " | read chapter " + i;
+            case 1:
+                return "D | " + done + " | submit report " + i + " | " + day;
+            case 2:
+                return "D | " + done + " | return book " + i + " | " + day + " 1800";
+            default:
+                return "E | " + done + " | project meeting " + i + " | " + day + " 1400 | " + day + " 1600";
+        }
+    }
+
+    /** A representative user input for each command, valid against any dataset of 10+ tasks. */
+    static String input(Parser.Command cmd) {
+        switch (cmd) {
+            case BYE:
+                return "bye";
+            case LIST:
+                return "list";
+            case MARK:
+                return "mark 5";
+            case UNMARK:
+                return "unmark 4";
+            case DELETE:
+                return "delete 7";
+            case TODO:
+                return "todo water the plants";
+            case DEADLINE:
+                return "deadline file taxes /by 2025-04-30 2359";
+            case EVENT:
+                return "event team offsite /from 2025-06-02 0900 /to 2025-06-03 1700";
+            case ON:
+                return "on 2025-03-03";
+            case FIND:
+                return "find book 12";
+            case UNDO:
+                return "undo";
+            case REDO:
+                return "redo";
+            default:
+                return "sort by time";
+        }
+    }
+
+    /** Builds {@code size} synthetic tasks in memory. */
+    static List<Task> tasks(int size) {
+        RecordDecoder decoder = new RecordDecoder();
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(decoder.decode(line(i)));
+        }
+        return tasks;
+    }
+
+    /** Writes a snapshot file with {@code size} tasks into a fresh temp file. */
+    static Path writeSnapshot(int size) throws IOException {
+        Path file = Files.createTempFile("kenma-bench-", ".txt");
+        file.toFile().deleteOnExit();
+        try (BufferedWriter bw = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < size; i++) {
+                bw.write(line(i));
+                bw.newLine();
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,100 @@
+package kenma;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Date fields per second through {@link DateParser} versus the original
+ * formatter-per-call, exception-on-miss parsing ({@link LegacyDates}), for
+ * each input shape; raw text is the legacy worst case with two exceptions per
+ * field. {@code loadDateHeavy*} decode whole records of a file holding only
+ * deadlines and events, which is where loads spend their date time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateParseBenchmark {
+    private static final int BATCH = 4096;
+
+    @Param({ "date", "dateTime", "text" })
+    public String shape;
+
+    private final String[] fields = new String[BATCH];
+    private final String[] lines = new String[BATCH];
+    private final byte[][] bytes = new byte[BATCH][];
+    private final RecordDecoder decoder = new RecordDecoder();
+
+    @Setup
+    public void prepare() {
+        for (int i = 0; i < BATCH; i++) {
+            String day = String.format("2025-%02d-%02d", 1 + i % 12, 1 + i % 28);
+            switch (shape) {
+                case "date": {
+                    fields[i] = day;
+                    break;
+                }
+                case "dateTime": {
+                    fields[i] = day + String.format(" %02d%02d", i % 24, i % 60);
+                    break;
+                }
+                default: {
+                    fields[i] = "after lunch on day " + i;
+                    break;
+                }
+            }
+            lines[i] = (i % 2 == 0)
+                    ? "D | 0 | submit report " + i + " | " + fields[i]
+                    : "E | 0 | project meeting " + i + " | " + fields[i] + " | " + fields[(i + 1) % BATCH];
+            bytes[i] = lines[i].getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void shared(Blackhole bh) {
+        for (String f : fields) {
+            bh.consume(DateParser.parse(f));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void legacy(Blackhole bh) {
+        for (String f : fields) {
+            bh.consume(LegacyDates.parse(f));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void loadDateHeavy(Blackhole bh) {
+        for (byte[] b : bytes) {
+            bh.consume(decoder.decode(b, 0, b.length));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void loadDateHeavyLegacy(Blackhole bh) {
+        for (String line : lines) {
+            bh.consume(LegacyDecoder.decode(line));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package kenma;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end {@link Kenma#getResponse(String)}: parse, execute and render one
+ * command against a loaded list. Sorting is measured through {@code sort by
+ * ...} since that is how users reach it.
+ *
+ * <p>
+ * The engine runs on a journaled storage so a mutation costs one appended
+ * record, not a full rewrite (see {@link StorageSaveBenchmark} for that).
+ * {@code mark} and {@code todo} are each paired with their inverse to keep
+ * the list stable across invocations.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class GetResponseBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int size;
+
+    @Param({ "list", "find book 12", "on 2025-03-03", "sort by name", "sort by status", "sort by time" })
+    public String query;
+
+    private Path file;
+    private Kenma engine;
+
+    @Setup
+    public void load() throws IOException {
+        file = Datasets.writeSnapshot(size);
+        engine = new Kenma(new Storage(file.toString(), true));
+        engine.getResponse(query); // build any index the query uses
+    }
+
+    @TearDown
+    public void close() throws IOException {
+        engine.close();
+        Files.deleteIfExists(Path.of(file + ".journal"));
+    }
+
+    @Benchmark
+    public String query() {
+        return engine.getResponse(query);
+    }
+
+    @Benchmark
+    public String markThenUnmark() {
+        engine.getResponse(Datasets.input(Parser.Command.MARK));
+        return engine.getResponse("unmark 5");
+    }
+
+    @Benchmark
+    public String addThenDelete() {
+        engine.getResponse(Datasets.input(Parser.Command.TODO));
+        return engine.getResponse("delete " + (size + 1));
+    }
+}
@@ -0,0 +1,48 @@
+package kenma;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link Parser#parse(String)} on a typical input for each
+ * command type, against the previous regex-based parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({ "TODO", "DEADLINE", "EVENT", "MARK", "DELETE", "FIND", "ON", "SORT", "LIST" })
+    public Parser.Command command;
+
+    private String input;
+
+    @Setup
+    public void pickInput() {
+        input = Datasets.input(command);
+    }
+
+    @Benchmark
+    public Parser.Parsed parse() {
+        return Parser.parse(input);
+    }
+
+    @Benchmark
+    public Parser.Parsed legacy() {
+        return LegacyParser.parse(input);
+    }
+}
@@ -0,0 +1,59 @@
+package kenma;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Record decode throughput in lines per second: {@link RecordDecoder} versus
+ * the original split + stream + formatter path, over the same mixed batch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordDecodeBenchmark {
+    private static final int BATCH = 4096;
+
+    private final String[] lines = new String[BATCH];
+    private final byte[][] bytes = new byte[BATCH][];
+    private final RecordDecoder decoder = new RecordDecoder();
+
+    @Setup
+    public void prepare() {
+        for (int i = 0; i < BATCH; i++) {
+            lines[i] = Datasets.line(i);
+            bytes[i] = lines[i].getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void scanner(Blackhole bh) {
+        for (byte[] b : bytes) {
+            bh.consume(decoder.decode(b, 0, b.length));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void splitAndStream(Blackhole bh) {
+        for (String line : lines) {
+            bh.consume(LegacyDecoder.decode(line));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package kenma;
+
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Repeated {@code list} on an unchanged list, through the console
+ * ({@link Ui#showList(List)}) and as GUI/server text ({@link Reply#toText()}),
+ * with each task's cached line versus rendering every line again as before.
+ * {@code markThenList} flips one task first, so one line is re-rendered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class RepeatedListBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int size;
+
+    private List<Task> tasks;
+    private Ui ui;
+    private int next;
+
+    @Setup
+    public void prepare() {
+        tasks = Datasets.tasks(size);
+        ui = new Ui(Writer.nullWriter(), true);
+        ui.showList(tasks); // render every line once, as the first list would
+    }
+
+    @Benchmark
+    public void consoleCached() {
+        ui.showList(tasks);
+    }
+
+    @Benchmark
+    public String replyCached() {
+        return Reply.tasks("Here are the tasks in your list:", tasks).toText();
+    }
+
+    @Benchmark
+    public String replyUncached() {
+        StringBuilder sb = new StringBuilder("Here are the tasks in your list:");
+        for (int i = 0; i < tasks.size(); i++) {
+            Task t = tasks.get(i);
+            sb.append(System.lineSeparator()).append(i + 1).append('.').append(t.render(t.isDone()));
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public String markThenList() {
+        Task t = tasks.get(next++ % tasks.size());
+        if (t.isDone()) {
+            t.markAsNotDone();
+        } else {
+            t.markAsDone();
+        }
+        return Reply.tasks("Here are the tasks in your list:", tasks).toText();
+    }
+}
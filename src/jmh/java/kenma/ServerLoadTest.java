@@ -0,0 +1,168 @@
+package kenma;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop load test for {@link KenmaServer} on localhost: each client
+ * thread owns one tenant seeded with {@code size} tasks and sends requests
+ * back to back for {@code seconds}, then requests/sec and latency percentiles
+ * are printed. The mix is 60% find, 10% each of list, sort and on, and 10%
+ * add-then-delete pairs.
+ *
+ * <p>
+ * {@code ./gradlew loadTest [-PloadArgs="--clients 32 --seconds 30 --size 1000 --threads 64"]}
+ * </p>
+ */
+public final class ServerLoadTest {
+    private ServerLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = 16;
+        int seconds = 20;
+        int size = 1000;
+        int threads = 32;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            int value = Integer.parseInt(args[i + 1]);
+            switch (args[i]) {
+                case "--clients": {
+                    clients = value;
+                    break;
+                }
+                case "--seconds": {
+                    seconds = value;
+                    break;
+                }
+                case "--size": {
+                    size = value;
+                    break;
+                }
+                case "--threads": {
+                    threads = value;
+                    break;
+                }
+                default: {
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        }
+
+        Path dir = Files.createTempDirectory("kenma-load-");
+        Path seed = Datasets.writeSnapshot(size);
+        for (int c = 0; c < clients; c++) {
+            Files.copy(seed, dir.resolve("load-" + c + ".txt"), StandardCopyOption.REPLACE_EXISTING);
+        }
+        KenmaServer server = new KenmaServer(0, dir, false, threads);
+        server.start();
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String base = "http://localhost:" + server.getPort() + "/tenants/load-";
+
+        // Warm up the server and JIT with a short run before measuring.
+        run(http, base, clients, size, Math.min(5, seconds));
+        Result r = run(http, base, clients, size, seconds);
+        server.stop();
+
+        long[] lat = r.latencies;
+        Arrays.sort(lat);
+        System.out.printf("clients=%d threads=%d size=%d seconds=%d%n", clients, threads, size, seconds);
+        System.out.printf("requests=%d errors=%d throughput=%.0f req/s%n",
+                lat.length, r.errors, lat.length / (double) seconds);
+        System.out.printf("latency ms: p50=%.3f p90=%.3f p99=%.3f max=%.3f%n",
+                pct(lat, 0.50), pct(lat, 0.90), pct(lat, 0.99), lat.length == 0 ? 0 : lat[lat.length - 1] / 1e6);
+    }
+
+    private static Result run(HttpClient http, String base, int clients, int size, int seconds) throws Exception {
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<Result>> parts = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            String tenant = base + c;
+            parts.add(pool.submit(() -> client(http, tenant, size, end)));
+        }
+        Result all = new Result(new long[0], 0);
+        for (Future<Result> part : parts) {
+            Result r = part.get();
+            long[] merged = Arrays.copyOf(all.latencies, all.latencies.length + r.latencies.length);
+            System.arraycopy(r.latencies, 0, merged, all.latencies.length, r.latencies.length);
+            all = new Result(merged, all.errors + r.errors);
+        }
+        pool.shutdown();
+        return all;
+    }
+
+    private static Result client(HttpClient http, String tenant, int size, long end)
+            throws IOException, InterruptedException {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        long[] lat = new long[1 << 16];
+        int n = 0;
+        int errors = 0;
+        int seq = 0;
+        while (System.nanoTime() < end) {
+            int pick = rnd.nextInt(10);
+            List<HttpRequest> batch = new ArrayList<>(2);
+            if (pick < 6) {
+                batch.add(get(tenant + "/tasks?find=chapter+" + rnd.nextInt(size)));
+            } else if (pick == 6) {
+                batch.add(get(tenant + "/tasks"));
+            } else if (pick == 7) {
+                batch.add(get(tenant + "/tasks?sort=time"));
+            } else if (pick == 8) {
+                batch.add(get(tenant + "/on/2025-" + String.format("%02d-%02d", 1 + rnd.nextInt(12),
+                        1 + rnd.nextInt(28))));
+            } else {
+                batch.add(HttpRequest.newBuilder(URI.create(tenant + "/tasks"))
+                        .POST(HttpRequest.BodyPublishers.ofString("todo load item " + seq++)).build());
+                batch.add(HttpRequest.newBuilder(URI.create(tenant + "/tasks/" + (size + 1)))
+                        .DELETE().build());
+            }
+            for (HttpRequest req : batch) {
+                long t0 = System.nanoTime();
+                HttpResponse<byte[]> res = http.send(req, HttpResponse.BodyHandlers.ofByteArray());
+                long took = System.nanoTime() - t0;
+                if (res.statusCode() != 200) {
+                    errors++;
+                }
+                if (n == lat.length) {
+                    lat = Arrays.copyOf(lat, n * 2);
+                }
+                lat[n++] = took;
+            }
+        }
+        return new Result(Arrays.copyOf(lat, n), errors);
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static double pct(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    private static final class Result {
+        final long[] latencies;
+        final int errors;
+
+        Result(long[] latencies, int errors) {
+            this.latencies = latencies;
+            this.errors = errors;
+        }
+    }
+}
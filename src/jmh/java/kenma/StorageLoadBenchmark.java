@@ -0,0 +1,107 @@
+package kenma;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Startup cost of loading a snapshot into a {@link TaskList}: the streaming
+ * text loader and the binary format versus the previous readAllLines + split +
+ * copy path. Each iteration is one
+ * cold load; the {@code peakHeapMb} counter reports the heap high-water mark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = { "-Xms8g", "-Xmx8g" })
+public class StorageLoadBenchmark {
+
+    @Param({ "10000", "1000000", "10000000" })
+    public int size;
+
+    private Path file;
+    private Path binaryFile;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        file = Datasets.writeSnapshot(size);
+        binaryFile = Files.createTempFile("kenma-bench-", ".bin");
+        binaryFile.toFile().deleteOnExit();
+        StorageConverter.convert(file.toString(), binaryFile.toString());
+    }
+
+    /** Peak heap usage of one load, in MB. */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Heap {
+        public long peakHeapMb;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            System.gc();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                pool.resetPeakUsage();
+            }
+            peakHeapMb = 0;
+        }
+
+        void record() {
+            long used = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    used += pool.getPeakUsage().getUsed();
+                }
+            }
+            peakHeapMb = used >> 20;
+        }
+    }
+
+    @Benchmark
+    public TaskList streaming(Heap heap) {
+        TaskList list = new TaskList(new Storage(file.toString()).load());
+        heap.record();
+        return list;
+    }
+
+    @Benchmark
+    public TaskList binary(Heap heap) {
+        TaskList list = new TaskList(new Storage(binaryFile.toString()).load());
+        heap.record();
+        return list;
+    }
+
+    @Benchmark
+    public TaskList readAllLines(Heap heap) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        List<Task> tasks = new ArrayList<>();
+        for (String line : lines) {
+            Task t = LegacyDecoder.decode(line);
+            if (t != null) {
+                tasks.add(t);
+            }
+        }
+        TaskList list = new TaskList(tasks);
+        heap.record();
+        return list;
+    }
+}
@@ -0,0 +1,68 @@
+package kenma;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Storage#save(List)} of a whole list, the cost every mutation pays
+ * outside journaled and write-behind modes, in the text and binary formats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class StorageSaveBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    private List<Task> tasks;
+    private Path dir;
+    private Storage text;
+    private Storage binary;
+
+    @Setup
+    public void prepare() throws IOException {
+        tasks = Datasets.tasks(size);
+        dir = Files.createTempDirectory("kenma-bench-");
+        text = new Storage(dir.resolve("kenma.txt").toString());
+        binary = new Storage(dir.resolve("kenma.bin").toString());
+    }
+
+    @TearDown
+    public void cleanUp() throws IOException {
+        text.close();
+        binary.close();
+        Files.deleteIfExists(dir.resolve("kenma.txt"));
+        Files.deleteIfExists(dir.resolve("kenma.bin"));
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public void saveText() {
+        text.save(tasks);
+    }
+
+    @Benchmark
+    public void saveBinary() {
+        binary.save(tasks);
+    }
+}
@@ -0,0 +1,45 @@
+package kenma;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Bulk import through {@link TaskList#add(Task)}: every add pays the
+ * duplicate check, so this shows whether it stays O(1) per task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class TaskListAddBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    private List<Task> tasks;
+
+    @Setup
+    public void generate() {
+        tasks = Datasets.tasks(size);
+    }
+
+    @Benchmark
+    public TaskList addAll() {
+        TaskList list = new TaskList();
+        for (Task t : tasks) {
+            list.add(t);
+        }
+        return list;
+    }
+}
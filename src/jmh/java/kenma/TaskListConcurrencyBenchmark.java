@@ -0,0 +1,79 @@
+package kenma;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Read throughput of one shared {@link TaskList} as threads are added. Run
+ * once per thread count and compare totals, e.g.
+ * {@code ./gradlew jmh -PjmhInclude=TaskListConcurrency -PjmhThreads=4 -PjmhTag=t4};
+ * lock-free reads ({@code list}, {@code sortedByName}) should scale about
+ * linearly with cores. The {@code mixed} group adds a writer appending and
+ * removing next to three readers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class TaskListConcurrencyBenchmark {
+
+    @Param({ "100000" })
+    public int size;
+
+    private TaskList tasks;
+    private final Todo churn = new Todo("churn");
+
+    @Setup
+    public void build() {
+        tasks = new TaskList(Datasets.tasks(size));
+        tasks.find("chapter"); // build indexes outside the measurement
+        tasks.sorted(TaskList.SortKey.NAME);
+    }
+
+    @Benchmark
+    public Task list() {
+        List<Task> snap = tasks.snapshot();
+        return snap.get(snap.size() / 2);
+    }
+
+    @Benchmark
+    public List<Task> sortedByName() {
+        return tasks.sorted(TaskList.SortKey.NAME);
+    }
+
+    @Benchmark
+    public List<Task> find() {
+        return tasks.find("chapter 4242");
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public List<Task> mixedFind() {
+        return tasks.find("chapter 4242");
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Task mixedWrite() {
+        tasks.add(churn);
+        return tasks.remove(tasks.size());
+    }
+}
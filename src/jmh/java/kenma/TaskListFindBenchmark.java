@@ -0,0 +1,59 @@
+package kenma;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link TaskList#find(String)} through the trigram index versus the original
+ * lower-case-and-scan search, for a rare, a common and a short needle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class TaskListFindBenchmark {
+
+    @Param({ "10000", "100000", "500000" })
+    public int size;
+
+    @Param({ "chapter 4242", "book", "me" })
+    public String needle;
+
+    private TaskList tasks;
+
+    @Setup
+    public void build() {
+        tasks = new TaskList(Datasets.tasks(size));
+        tasks.find(needle); // build the index outside the measurement
+    }
+
+    @Benchmark
+    public List<Task> indexed() {
+        return tasks.find(needle);
+    }
+
+    @Benchmark
+    public List<Task> linearScan() {
+        String lower = needle.toLowerCase();
+        return tasks.all().stream()
+                .filter(t -> {
+                    String d = t.getDescription();
+                    return d != null && d.toLowerCase().contains(lower);
+                })
+                .toList();
+    }
+}
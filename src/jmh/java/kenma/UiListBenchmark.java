@@ -0,0 +1,64 @@
+package kenma;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the {@code list} output: {@link Ui#showList(List)} rendering
+ * into its buffer versus the previous {@code println}/{@code printf} per line
+ * on a {@link PrintStream}. Both write to a null sink, so only the output path
+ * itself is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class UiListBenchmark {
+    private static final String LINE = "____________________________________________________________";
+
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    private List<Task> tasks;
+    private Ui ui;
+    private PrintStream legacy;
+
+    @Setup
+    public void prepare() {
+        tasks = Datasets.tasks(size);
+        ui = new Ui(Writer.nullWriter(), true);
+        legacy = new PrintStream(OutputStream.nullOutputStream(), true);
+    }
+
+    @Benchmark
+    public void buffered() {
+        ui.showList(tasks);
+    }
+
+    @Benchmark
+    public void printStream() {
+        legacy.println(LINE);
+        legacy.println(" Here are the tasks in your list:");
+        for (int i = 0; i < tasks.size(); i++) {
+            legacy.printf(" %d.%s%n", i + 1, tasks.get(i));
+        }
+        legacy.println(LINE);
+    }
+}
@@ -0,0 +1,300 @@
+package kenma;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.Temporal;
+
+/**
+ * Compact binary encoding of tasks, used by {@link Storage} for {@code .bin}
+ * files.
+ *
+ * <p>
+ * Layout: a header of magic {@code "KNMA"}, a version byte and the task
+ * count, followed by one record per task:
+ * </p>
+ *
+ * <pre>
+ * type   byte    TaskType symbol ('T', 'D', 'E')
+ * flags  byte    bit 0 = done
+ * desc   string
+ * by     when    (Deadline only)
+ * from   when    (Event only)
+ * to     when    (Event only)
+ *
+ * string = int length + UTF-8 bytes
+ * when   = byte tag, then one of
+ *          0: string        raw text that is not a recognized date
+ *          1: int           epoch day        (yyyy-MM-dd)
+ *          2: long          epoch minute     (yyyy-MM-dd HHmm)
+ * </pre>
+ *
+ * <p>
+ * A date is only stored as a number when its canonical text equals what the
+ * user typed, so decoding gives back the exact same strings. Unlike the text
+ * format, descriptions may contain {@code |}.
+ * </p>
+ */
+final class BinaryFormat {
+    static final int MAGIC = 0x4B4E4D41; // "KNMA"
+    static final byte VERSION = 1;
+
+    private static final byte FLAG_DONE = 1;
+    private static final byte WHEN_RAW = 0;
+    private static final byte WHEN_DATE = 1;
+    private static final byte WHEN_DATE_TIME = 2;
+    /** Sanity bound for a string length read from disk. */
+    private static final int MAX_STRING = 1 << 24;
+
+    /** Value decoded by the last {@link #readWhenRaw}: a date, a date-time, or null. */
+    private Temporal whenValue;
+
+    static void writeHeader(DataOutput out, int count) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(count);
+    }
+
+    /**
+     * Validates the header and returns the task count.
+     *
+     * @throws IOException if the magic or version does not match
+     */
+    static int readHeader(Input in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a Kenma binary file");
+        }
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("unsupported binary version " + version);
+        }
+        return in.readInt();
+    }
+
+    /** Writes one record; tasks of unknown types are skipped. */
+    static void write(DataOutput out, Task t) throws IOException {
+        if (!(t instanceof Todo || t instanceof Deadline || t instanceof Event)) {
+            return;
+        }
+        out.writeByte(t.getType().getSymbol().charAt(0));
+        out.writeByte(t.isDone() ? FLAG_DONE : 0);
+        writeString(out, t.getDescription());
+        if (t instanceof Deadline) {
+            Deadline d = (Deadline) t;
+            writeWhen(out, d.getBy(), d.getDueDate(), d.getDueDateTime());
+        } else if (t instanceof Event) {
+            Event e = (Event) t;
+            writeWhen(out, e.getFrom(), e.getFromDate(), e.getFromDateTime());
+            writeWhen(out, e.getTo(), e.getToDate(), e.getToDateTime());
+        }
+    }
+
+    /**
+     * Reads one record.
+     *
+     * @throws IOException on truncated or corrupt input
+     */
+    Task read(Input in) throws IOException {
+        byte type = in.readByte();
+        boolean isDone = (in.readByte() & FLAG_DONE) != 0;
+        String desc = readString(in);
+        Task t;
+        try {
+            switch (type) {
+                case 'T': {
+                    t = new Todo(desc);
+                    break;
+                }
+                case 'D': {
+                    String by = readWhenRaw(in);
+                    t = new Deadline(desc, by, whenValue);
+                    break;
+                }
+                case 'E': {
+                    String from = readWhenRaw(in);
+                    Temporal fromWhen = whenValue;
+                    String to = readWhenRaw(in);
+                    t = new Event(desc, from, fromWhen, to, whenValue);
+                    break;
+                }
+                default: {
+                    throw new IOException("unknown record type " + type);
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("invalid record: " + ex.getMessage());
+        }
+        if (isDone) {
+            t.markAsDone();
+        }
+        return t;
+    }
+
+    /** A single record as bytes, e.g. for a journal entry. */
+    static byte[] encode(Task t) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        write(new DataOutputStream(bytes), t);
+        return bytes.toByteArray();
+    }
+
+    /** Inverse of {@link #encode(Task)}. */
+    Task decode(byte[] record) throws IOException {
+        return read(new Input(ByteBuffer.wrap(record), null));
+    }
+
+    /**
+     * Whether the task survives a round trip through the pipe-delimited text
+     * format (no {@code |} or line breaks in any field).
+     */
+    static boolean isTextSafe(Task t) {
+        if (!isTextSafe(t.getDescription())) {
+            return false;
+        }
+        if (t instanceof Deadline) {
+            return isTextSafe(((Deadline) t).getBy());
+        }
+        if (t instanceof Event) {
+            return isTextSafe(((Event) t).getFrom()) && isTextSafe(((Event) t).getTo());
+        }
+        return true;
+    }
+
+    private static boolean isTextSafe(String s) {
+        return s.indexOf('|') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0
+                && s.equals(s.trim());
+    }
+
+    private static void writeWhen(DataOutput out, String raw, LocalDate date, LocalDateTime dateTime)
+            throws IOException {
+        if (dateTime != null && raw.equals(DateParser.canonical(dateTime))) {
+            out.writeByte(WHEN_DATE_TIME);
+            out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC) / 60);
+        } else if (date != null && raw.equals(DateParser.canonical(date))) {
+            out.writeByte(WHEN_DATE);
+            out.writeInt((int) date.toEpochDay());
+        } else {
+            out.writeByte(WHEN_RAW);
+            writeString(out, raw);
+        }
+    }
+
+    /**
+     * Reads a {@code when} field and returns its raw text, or {@code null} for a
+     * numeric date whose text is canonical (the task derives it on demand). The
+     * parsed value is left in {@link #whenValue}.
+     */
+    private String readWhenRaw(Input in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case WHEN_DATE_TIME: {
+                whenValue = LocalDateTime.ofEpochSecond(in.readLong() * 60, 0, ZoneOffset.UTC);
+                return null;
+            }
+            case WHEN_DATE: {
+                whenValue = LocalDate.ofEpochDay(in.readInt());
+                return null;
+            }
+            case WHEN_RAW: {
+                String raw = readString(in);
+                whenValue = DateParser.parse(raw);
+                return raw;
+            }
+            default: {
+                throw new IOException("unknown date tag " + tag);
+            }
+        }
+    }
+
+    private static void writeString(DataOutput out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private String readString(Input in) throws IOException {
+        int len = in.readInt();
+        if (len < 0 || len > MAX_STRING) {
+            throw new IOException("corrupt string length " + len);
+        }
+        return in.readUtf8(len);
+    }
+
+    /**
+     * Big-endian reader over a buffer that is refilled from a channel on demand,
+     * avoiding the per-byte locking of {@code DataInputStream}.
+     */
+    static final class Input {
+        private ByteBuffer buf;
+        private final ReadableByteChannel channel;
+
+        /**
+         * @param buf     buffer in read mode holding the first bytes
+         * @param channel source of further bytes, or {@code null} if {@code buf}
+         *                holds everything
+         */
+        Input(ByteBuffer buf, ReadableByteChannel channel) {
+            this.buf = buf;
+            this.channel = channel;
+        }
+
+        byte readByte() throws IOException {
+            ensure(1);
+            return buf.get();
+        }
+
+        int readInt() throws IOException {
+            ensure(4);
+            return buf.getInt();
+        }
+
+        long readLong() throws IOException {
+            ensure(8);
+            return buf.getLong();
+        }
+
+        String readUtf8(int len) throws IOException {
+            ensure(len);
+            String s;
+            if (buf.hasArray()) {
+                s = new String(buf.array(), buf.arrayOffset() + buf.position(), len, StandardCharsets.UTF_8);
+                buf.position(buf.position() + len);
+            } else {
+                byte[] b = new byte[len];
+                buf.get(b);
+                s = new String(b, StandardCharsets.UTF_8);
+            }
+            return s;
+        }
+
+        /** Makes at least {@code n} bytes available or throws {@link EOFException}. */
+        private void ensure(int n) throws IOException {
+            if (buf.remaining() >= n) {
+                return;
+            }
+            if (channel == null) {
+                throw new EOFException();
+            }
+            if (buf.capacity() < n) {
+                ByteBuffer bigger = ByteBuffer.allocate(Math.max(n, buf.capacity() * 2));
+                bigger.put(buf);
+                buf = bigger;
+            } else {
+                buf.compact();
+            }
+            while (buf.position() < n) {
+                if (channel.read(buf) < 0) {
+                    throw new EOFException();
+                }
+            }
+            buf.flip();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package kenma;
+
+/**
+ * One entry of the chat history: who said it and what. The window's list
+ * holds these lightweight models; {@link DialogBox} nodes are only created
+ * for the rows on screen and are reused as the list scrolls.
+ */
+final class ChatMessage {
+    /** Kind of bubble, which decides its side and style. */
+    enum Kind {
+        USER, BOT, ERROR, PENDING
+    }
+
+    private final Kind kind;
+    private final String text;
+    private final Reply results;
+
+    private ChatMessage(Kind kind, String text, Reply results) {
+        this.kind = kind;
+        this.text = text;
+        this.results = results;
+    }
+
+    static ChatMessage user(String text) {
+        return new ChatMessage(Kind.USER, text, null);
+    }
+
+    static ChatMessage bot(String text) {
+        return new ChatMessage(Kind.BOT, text, null);
+    }
+
+    static ChatMessage error(String text) {
+        return new ChatMessage(Kind.ERROR, text, null);
+    }
+
+    /** Placeholder shown while a command is still running. */
+    static ChatMessage pending() {
+        return new ChatMessage(Kind.PENDING, "…", null);
+    }
+
+    /**
+     * A bot message listing the tasks of a list reply under its header, whose
+     * rows are rendered as they are scrolled to (see {@link ResultListView});
+     * an empty result is plain text.
+     */
+    static ChatMessage results(Reply reply) {
+        if (reply.getTasks().isEmpty()) {
+            return bot(reply.toText());
+        }
+        return new ChatMessage(Kind.BOT, reply.getText(), reply);
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    String getText() {
+        return text;
+    }
+
+    /** The list reply whose rows go below the text, or {@code null}. */
+    Reply getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,718 @@
+package kenma;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.Temporal;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A task list held in primitive columns rather than as task objects, for
+ * lists of millions of tasks that are mostly read.
+ *
+ * <p>
+ * Each task is a row across parallel arrays: its type, a bit of a done
+ * bitset, its deadline or event times as epoch minutes, and references into
+ * one UTF-8 arena holding descriptions and any raw time text that is not the
+ * canonical text of its parsed time. A row costs about 40 bytes plus its
+ * text, against several hundred for a task object with its strings and
+ * dates. {@code on} and time sorts scan the {@code long} columns directly;
+ * name search and sorts decode descriptions as they go.
+ * </p>
+ *
+ * <p>
+ * {@link #get(int)} materializes a fresh {@link Task} on every call, so
+ * marking that task does not change the list: use {@link #set(int, Task)}
+ * (as {@link Storage} replay does) or {@link #mark}/{@link #unmark}.
+ * {@link Storage#loadInto} fills the list directly. Lists from
+ * {@link #find} and {@link #sorted} refer to rows, so they are only valid
+ * until the next insert or removal. Not thread-safe.
+ * </p>
+ */
+final class ColumnarTaskList extends AbstractList<Task> implements RandomAccess {
+    private static final byte TODO = 0;
+    private static final byte DEADLINE = 1;
+    private static final byte EVENT = 2;
+    /** Flag: the start column holds a date rather than a date-time. */
+    private static final byte START_IS_DATE = 1;
+    /** Flag: the end column holds a date rather than a date-time. */
+    private static final byte END_IS_DATE = 2;
+    /** Time column value for a time that was not recognized as a date. */
+    private static final long NO_TIME = Long.MIN_VALUE;
+    /** Raw text reference meaning "the canonical text of the parsed time". */
+    private static final int CANONICAL = -1;
+    private static final long MINUTES_PER_DAY = 24 * 60;
+
+    private byte[] types;
+    private byte[] flags;
+    /** A deadline's due time or an event's start, in epoch minutes (UTC). */
+    private long[] starts;
+    /** An event's end, in epoch minutes (UTC). */
+    private long[] ends;
+    private long[] done;
+    private int[] descriptions;
+    private int[] rawStarts;
+    private int[] rawEnds;
+    /** {@link Task#hashCode()} per row for duplicate checks; {@code null} until the first {@link #indexOf}. */
+    private int[] hashes;
+    private int size;
+
+    /** Length-prefixed UTF-8 strings, referenced by offset. */
+    private byte[] arena;
+    private int arenaLength;
+    /** Arena bytes no longer referenced by any row. */
+    private int garbage;
+
+    ColumnarTaskList() {
+        this(16);
+    }
+
+    ColumnarTaskList(int capacity) {
+        int n = Math.max(16, capacity);
+        types = new byte[n];
+        flags = new byte[n];
+        starts = new long[n];
+        ends = new long[n];
+        done = new long[(n + 63) >>> 6];
+        descriptions = new int[n];
+        rawStarts = new int[n];
+        rawEnds = new int[n];
+        arena = new byte[n * 16];
+    }
+
+    /** Materializes the task at the 0-based {@code index}. */
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        Task t;
+        switch (types[index]) {
+            case DEADLINE: {
+                t = new Deadline(text(descriptions[index]), rawText(rawStarts[index]),
+                        when(starts[index], START_IS_DATE, index));
+                break;
+            }
+            case EVENT: {
+                t = new Event(text(descriptions[index]),
+                        rawText(rawStarts[index]), when(starts[index], START_IS_DATE, index),
+                        rawText(rawEnds[index]), when(ends[index], END_IS_DATE, index));
+                break;
+            }
+            default: {
+                t = new Todo(text(descriptions[index]));
+                break;
+            }
+        }
+        if (isDone(index)) {
+            t.markAsDone();
+        }
+        return t;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** Inserts {@code t} at {@code index}; appending is amortized O(1), inserting shifts later rows. */
+    @Override
+    public void add(int index, Task t) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        if (size == types.length) {
+            grow(size + 1);
+        }
+        if (index < size) {
+            int tail = size - index;
+            if (hashes != null) {
+                System.arraycopy(hashes, index, hashes, index + 1, tail);
+            }
+            System.arraycopy(types, index, types, index + 1, tail);
+            System.arraycopy(flags, index, flags, index + 1, tail);
+            System.arraycopy(starts, index, starts, index + 1, tail);
+            System.arraycopy(ends, index, ends, index + 1, tail);
+            System.arraycopy(descriptions, index, descriptions, index + 1, tail);
+            System.arraycopy(rawStarts, index, rawStarts, index + 1, tail);
+            System.arraycopy(rawEnds, index, rawEnds, index + 1, tail);
+            insertDoneBit(index);
+        }
+        size++;
+        encode(index, t);
+        modCount++;
+    }
+
+    /** Replaces the row at {@code index} with {@code t}, done status included. */
+    @Override
+    public Task set(int index, Task t) {
+        Task old = get(index);
+        release(index);
+        encode(index, t);
+        return old;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task old = get(index);
+        release(index);
+        int tail = size - index - 1;
+        if (hashes != null) {
+            System.arraycopy(hashes, index + 1, hashes, index, tail);
+        }
+        System.arraycopy(types, index + 1, types, index, tail);
+        System.arraycopy(flags, index + 1, flags, index, tail);
+        System.arraycopy(starts, index + 1, starts, index, tail);
+        System.arraycopy(ends, index + 1, ends, index, tail);
+        System.arraycopy(descriptions, index + 1, descriptions, index, tail);
+        System.arraycopy(rawStarts, index + 1, rawStarts, index, tail);
+        System.arraycopy(rawEnds, index + 1, rawEnds, index, tail);
+        removeDoneBit(index);
+        size--;
+        modCount++;
+        if (garbage > (1 << 16) && garbage > arenaLength / 2) {
+            compact();
+        }
+        return old;
+    }
+
+    /**
+     * Removes the rows at the given 1-based positions in one pass, rather than
+     * shifting the later rows once per removal.
+     *
+     * @param positions ascending, distinct positions within the list
+     */
+    void removeRows(int[] positions) {
+        int n = 0;
+        int k = 0;
+        for (int i = 0; i < size; i++) {
+            if (k < positions.length && positions[k] == i + 1) {
+                release(i);
+                k++;
+            } else {
+                if (n != i) {
+                    moveRow(i, n);
+                }
+                n++;
+            }
+        }
+        for (int i = n; i < size; i++) {
+            setDone(i, false);
+        }
+        size = n;
+        modCount++;
+        if (garbage > (1 << 16) && garbage > arenaLength / 2) {
+            compact();
+        }
+    }
+
+    /**
+     * Inserts tasks so they end up at the given 1-based positions, moving each
+     * existing row once, as undoing {@link #removeRows} does.
+     *
+     * @param positions ascending, distinct positions in the resulting list
+     * @param tasks     the task for each position
+     */
+    void insertRows(int[] positions, Task[] tasks) {
+        int newSize = size + tasks.length;
+        if (newSize > types.length) {
+            grow(newSize);
+        }
+        int k = tasks.length - 1;
+        for (int i = newSize - 1; k >= 0; i--) {
+            if (positions[k] == i + 1) {
+                encode(i, tasks[k--]);
+            } else {
+                moveRow(i - k - 1, i);
+            }
+        }
+        size = newSize;
+        modCount++;
+    }
+
+    /**
+     * Position of a task equal to {@code o}, or -1. Scans a column of hashes,
+     * built on the first call and kept in step after, and materializes only
+     * the rows whose hash matches.
+     */
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Task)) {
+            return -1;
+        }
+        ensureHashes();
+        int h = o.hashCode();
+        for (int i = 0; i < size; i++) {
+            if (hashes[i] == h && get(i).equals(o)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * One of {@code tasks} that equals a row or an earlier one of
+     * {@code tasks}, or {@code null}; a single pass over the hash column
+     * however many tasks are checked.
+     */
+    Task findPresent(Task[] tasks) {
+        HashMap<Integer, List<Task>> byHash = new HashMap<>();
+        for (Task t : tasks) {
+            List<Task> same = byHash.computeIfAbsent(t.hashCode(), h -> new ArrayList<>(1));
+            if (same.contains(t)) {
+                return t;
+            }
+            same.add(t);
+        }
+        ensureHashes();
+        for (int i = 0; i < size; i++) {
+            List<Task> same = byHash.get(hashes[i]);
+            if (same != null) {
+                Task row = get(i);
+                for (Task t : same) {
+                    if (t.equals(row)) {
+                        return t;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private void ensureHashes() {
+        if (hashes == null) {
+            int[] h = new int[types.length];
+            for (int i = 0; i < size; i++) {
+                h[i] = get(i).hashCode();
+            }
+            hashes = h;
+        }
+    }
+
+    @Override
+    public void clear() {
+        hashes = null;
+        size = 0;
+        arenaLength = 0;
+        garbage = 0;
+        Arrays.fill(done, 0);
+        modCount++;
+    }
+
+    /** Marks the task at the 1-based position as done. */
+    void mark(int idx1Based) {
+        ensureIndex(idx1Based);
+        done[(idx1Based - 1) >>> 6] |= 1L << (idx1Based - 1);
+    }
+
+    /** Marks the task at the 1-based position as not done. */
+    void unmark(int idx1Based) {
+        ensureIndex(idx1Based);
+        done[(idx1Based - 1) >>> 6] &= ~(1L << (idx1Based - 1));
+    }
+
+    boolean isDone(int index) {
+        return (done[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /** Case-insensitive substring search over descriptions, in list order. */
+    List<Task> find(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            throw new DukeException("Keyword for find cannot be empty.");
+        }
+        String needle = keyword.toLowerCase();
+        IntList rows = new IntList();
+        for (int i = 0; i < size; i++) {
+            if (text(descriptions[i]).toLowerCase().contains(needle)) {
+                rows.add(i);
+            }
+        }
+        return new Rows(rows.toSortedArray());
+    }
+
+    /**
+     * 1-based positions of deadlines due and events running on any day from
+     * {@code from} to {@code to} inclusive, in list order; as
+     * {@link TaskList#occurringBetween}, events need both times recognized.
+     */
+    int[] occurringBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Dates cannot be null.");
+        }
+        if (to.isBefore(from)) {
+            throw new DukeException("End date must not be before start date.");
+        }
+        long lo = from.toEpochDay() * MINUTES_PER_DAY;
+        long hi = (to.toEpochDay() + 1) * MINUTES_PER_DAY - 1;
+        IntList hits = new IntList();
+        for (int i = 0; i < size; i++) {
+            long s = starts[i];
+            if (s == NO_TIME) {
+                continue;
+            }
+            if (types[i] == DEADLINE) {
+                if (s >= lo && s <= hi) {
+                    hits.add(i + 1);
+                }
+            } else if (types[i] == EVENT) {
+                long e = ends[i];
+                if (e != NO_TIME && s <= hi && e >= lo) {
+                    hits.add(i + 1);
+                }
+            }
+        }
+        return hits.toSortedArray();
+    }
+
+    /** All tasks ordered by {@code key}; ties keep list order, as {@link TaskList#sorted}. */
+    List<Task> sorted(TaskStore.SortKey key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Sort key cannot be null.");
+        }
+        switch (key) {
+            case STATUS: {
+                return new Rows(byStatus());
+            }
+            case TIME: {
+                return new Rows(byTime());
+            }
+            default: {
+                return new Rows(byName());
+            }
+        }
+    }
+
+    private int[] byStatus() {
+        int[] rows = new int[size];
+        int n = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < size; i++) {
+                if (isDone(i) == (pass == 1)) {
+                    rows[n++] = i;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Timed rows sort as {@code (time - min) << bits | row} in one primitive
+     * sort when the times span few enough minutes to leave room for the row;
+     * untimed rows follow in list order.
+     */
+    private int[] byTime() {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        int timed = 0;
+        for (int i = 0; i < size; i++) {
+            if (types[i] != TODO && starts[i] != NO_TIME) {
+                min = Math.min(min, starts[i]);
+                max = Math.max(max, starts[i]);
+                timed++;
+            }
+        }
+        int[] rows = new int[size];
+        int bits = 32 - Integer.numberOfLeadingZeros(size);
+        if (timed > 0 && max - min < (1L << (63 - bits))) {
+            long[] keys = new long[timed];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (types[i] != TODO && starts[i] != NO_TIME) {
+                    keys[n++] = ((starts[i] - min) << bits) | i;
+                }
+            }
+            Arrays.sort(keys);
+            long mask = (1L << bits) - 1;
+            for (int k = 0; k < timed; k++) {
+                rows[k] = (int) (keys[k] & mask);
+            }
+        } else if (timed > 0) {
+            Integer[] boxed = new Integer[timed];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (types[i] != TODO && starts[i] != NO_TIME) {
+                    boxed[n++] = i;
+                }
+            }
+            Arrays.sort(boxed, Comparator.comparingLong((Integer i) -> starts[i]));
+            for (int k = 0; k < timed; k++) {
+                rows[k] = boxed[k];
+            }
+        }
+        int n = timed;
+        for (int i = 0; i < size; i++) {
+            if (types[i] == TODO || starts[i] == NO_TIME) {
+                rows[n++] = i;
+            }
+        }
+        return rows;
+    }
+
+    private int[] byName() {
+        String[] names = new String[size];
+        Integer[] boxed = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = text(descriptions[i]);
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, (a, b) -> String.CASE_INSENSITIVE_ORDER.compare(names[a], names[b]));
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = boxed[i];
+        }
+        return rows;
+    }
+
+    /** Arena bytes in use, garbage included; for sizing and benchmarks. */
+    int arenaBytes() {
+        return arenaLength;
+    }
+
+    private void encode(int i, Task t) {
+        descriptions[i] = put(t.getDescription());
+        flags[i] = 0;
+        starts[i] = NO_TIME;
+        ends[i] = NO_TIME;
+        rawStarts[i] = CANONICAL;
+        rawEnds[i] = CANONICAL;
+        if (t instanceof Deadline) {
+            Deadline d = (Deadline) t;
+            types[i] = DEADLINE;
+            starts[i] = minutes(d.getDueDate(), d.getDueDateTime());
+            flags[i] = d.getDueDate() != null ? START_IS_DATE : 0;
+            rawStarts[i] = putRaw(d.getBy(), d.getDueDate(), d.getDueDateTime());
+        } else if (t instanceof Event) {
+            Event e = (Event) t;
+            types[i] = EVENT;
+            starts[i] = minutes(e.getFromDate(), e.getFromDateTime());
+            ends[i] = minutes(e.getToDate(), e.getToDateTime());
+            flags[i] = (byte) ((e.getFromDate() != null ? START_IS_DATE : 0)
+                    | (e.getToDate() != null ? END_IS_DATE : 0));
+            rawStarts[i] = putRaw(e.getFrom(), e.getFromDate(), e.getFromDateTime());
+            rawEnds[i] = putRaw(e.getTo(), e.getToDate(), e.getToDateTime());
+        } else {
+            types[i] = TODO;
+        }
+        if (hashes != null) {
+            hashes[i] = t.hashCode();
+        }
+        setDone(i, t.isDone());
+    }
+
+    private void setDone(int i, boolean isDone) {
+        if (isDone) {
+            done[i >>> 6] |= 1L << i;
+        } else {
+            done[i >>> 6] &= ~(1L << i);
+        }
+    }
+
+    /** Copies row {@code from} over row {@code to}, done bit and hash included. */
+    private void moveRow(int from, int to) {
+        types[to] = types[from];
+        flags[to] = flags[from];
+        starts[to] = starts[from];
+        ends[to] = ends[from];
+        descriptions[to] = descriptions[from];
+        rawStarts[to] = rawStarts[from];
+        rawEnds[to] = rawEnds[from];
+        if (hashes != null) {
+            hashes[to] = hashes[from];
+        }
+        setDone(to, isDone(from));
+    }
+
+    /** Counts the arena entries of row {@code i} as garbage. */
+    private void release(int i) {
+        garbage += entryLength(descriptions[i]) + entryLength(rawStarts[i]) + entryLength(rawEnds[i]);
+    }
+
+    private static long minutes(LocalDate date, LocalDateTime dateTime) {
+        if (dateTime != null) {
+            return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+        }
+        return date != null ? date.toEpochDay() * MINUTES_PER_DAY : NO_TIME;
+    }
+
+    private Temporal when(long minutes, byte isDateFlag, int i) {
+        if (minutes == NO_TIME) {
+            return null;
+        }
+        if ((flags[i] & isDateFlag) != 0) {
+            return LocalDate.ofEpochDay(Math.floorDiv(minutes, MINUTES_PER_DAY));
+        }
+        return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+    }
+
+    /** Stores raw time text only if it differs from the canonical text of its parsed time. */
+    private int putRaw(String raw, LocalDate date, LocalDateTime dateTime) {
+        if (dateTime != null && raw.equals(DateParser.canonical(dateTime))) {
+            return CANONICAL;
+        }
+        if (date != null && raw.equals(DateParser.canonical(date))) {
+            return CANONICAL;
+        }
+        return put(raw);
+    }
+
+    private String rawText(int ref) {
+        return ref == CANONICAL ? null : text(ref);
+    }
+
+    /** Appends {@code s} as a varint byte length followed by its UTF-8 bytes. */
+    private int put(String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        int need = 5 + b.length;
+        if ((long) arenaLength + need > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Task text exceeds 2 GB.");
+        }
+        if (arenaLength + need > arena.length) {
+            long grown = Math.max((long) arenaLength + need, arena.length + (arena.length >> 1));
+            arena = Arrays.copyOf(arena, (int) Math.min(grown, Integer.MAX_VALUE - 8));
+        }
+        int ref = arenaLength;
+        int n = b.length;
+        while (n >= 0x80) {
+            arena[arenaLength++] = (byte) (n | 0x80);
+            n >>>= 7;
+        }
+        arena[arenaLength++] = (byte) n;
+        System.arraycopy(b, 0, arena, arenaLength, b.length);
+        arenaLength += b.length;
+        return ref;
+    }
+
+    private String text(int ref) {
+        int p = ref;
+        int n = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = arena[p++];
+            n |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return new String(arena, p, n, StandardCharsets.UTF_8);
+    }
+
+    private int entryLength(int ref) {
+        return ref == CANONICAL ? 0 : entryLength(arena, ref);
+    }
+
+    private static int entryLength(byte[] arena, int ref) {
+        int p = ref;
+        int n = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = arena[p++];
+            n |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return p - ref + n;
+    }
+
+    /** Rewrites the arena with live entries only, in row order. */
+    private void compact() {
+        byte[] old = arena;
+        arena = new byte[Math.max(16, arenaLength - garbage)];
+        arenaLength = 0;
+        garbage = 0;
+        for (int i = 0; i < size; i++) {
+            descriptions[i] = copy(old, descriptions[i]);
+            rawStarts[i] = copy(old, rawStarts[i]);
+            rawEnds[i] = copy(old, rawEnds[i]);
+        }
+    }
+
+    private int copy(byte[] from, int ref) {
+        if (ref == CANONICAL) {
+            return CANONICAL;
+        }
+        int n = entryLength(from, ref);
+        System.arraycopy(from, ref, arena, arenaLength, n);
+        arenaLength += n;
+        return arenaLength - n;
+    }
+
+    /** Shifts the done bits from {@code pos} up by one, leaving {@code pos} clear. */
+    private void insertDoneBit(int pos) {
+        int w = pos >>> 6;
+        int last = size >>> 6;
+        for (int j = last; j > w; j--) {
+            done[j] = (done[j] << 1) | (done[j - 1] >>> 63);
+        }
+        long low = (1L << pos) - 1;
+        long word = done[w];
+        done[w] = (word & low) | ((word << 1) & ~low & ~(1L << pos));
+    }
+
+    /** Shifts the done bits above {@code pos} down by one. */
+    private void removeDoneBit(int pos) {
+        int w = pos >>> 6;
+        int last = (size - 1) >>> 6;
+        long low = (1L << pos) - 1;
+        long word = done[w];
+        done[w] = (word & low) | ((word >>> 1) & ~low);
+        for (int j = w; j < last; j++) {
+            done[j] |= (done[j + 1] & 1L) << 63;
+            done[j + 1] >>>= 1;
+        }
+    }
+
+    private void grow(int minCapacity) {
+        int n = Math.max(minCapacity, Math.max(16, size + (size >> 1)));
+        types = Arrays.copyOf(types, n);
+        flags = Arrays.copyOf(flags, n);
+        starts = Arrays.copyOf(starts, n);
+        ends = Arrays.copyOf(ends, n);
+        done = Arrays.copyOf(done, (n + 63) >>> 6);
+        descriptions = Arrays.copyOf(descriptions, n);
+        rawStarts = Arrays.copyOf(rawStarts, n);
+        rawEnds = Arrays.copyOf(rawEnds, n);
+        if (hashes != null) {
+            hashes = Arrays.copyOf(hashes, n);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+    }
+
+    private void ensureIndex(int idx1Based) {
+        if (idx1Based <= 0 || idx1Based > size) {
+            throw new DukeException("Index out of range. Valid range: 1.." + size + ".");
+        }
+    }
+
+    /** Tasks at the given rows, materialized on access. */
+    private final class Rows extends AbstractList<Task> implements RandomAccess {
+        private final int[] rows;
+
+        Rows(int[] rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public Task get(int index) {
+            return ColumnarTaskList.this.get(rows[index]);
+        }
+
+        @Override
+        public int size() {
+            return rows.length;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package kenma;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Date index answering {@link TaskList#occurringBetween(LocalDate, LocalDate)}:
+ * a sorted map from due day to deadlines, and an interval treap over event
+ * spans (ordered by start day, each node carrying the latest end day below it).
+ *
+ * <p>
+ * As in {@link KeywordIndex}, the index only grows: the list's writer adds
+ * while readers query without locking, each against its own snapshot, whose
+ * sorted ids turn a matching id back into a list position. The treap is
+ * persistent, so an insert copies the nodes on its path and readers keep
+ * walking the version they started with. Each hit is checked against the
+ * task now at its position, since a removed task's id may have been given
+ * to another. Todos and deadlines without a parsed date are not indexed.
+ * </p>
+ */
+final class DateIndex {
+    private final ConcurrentSkipListMap<Long, IdList> deadlines = new ConcurrentSkipListMap<>();
+    private volatile Span events;
+    /** Removed tasks still indexed; only the writer touches this. */
+    private int dead;
+
+    /** Indexes the first {@code size} tasks, whose ids are {@code ids}. */
+    DateIndex(Task[] items, long[] ids, int size) {
+        Span[] spans = new Span[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            Span s = file(items[i], ids[i]);
+            if (s != null) {
+                spans[n++] = s;
+            }
+        }
+        Arrays.sort(spans, 0, n, Span.ORDER);
+        events = Span.build(spans, 0, n);
+    }
+
+    /** Indexes a task added to the list under {@code id}. */
+    void add(Task t, long id) {
+        Span s = file(t, id);
+        if (s != null) {
+            events = Span.insert(events, s);
+        }
+    }
+
+    /**
+     * Counts a removal.
+     *
+     * @param live tasks left in the list
+     * @return whether the index is still worth keeping
+     */
+    boolean remove(int live) {
+        dead++;
+        return dead <= 1024 || dead <= live;
+    }
+
+    /**
+     * 1-based positions, ascending, of deadlines due and events running on any
+     * day in {@code [from, to]} among the first {@code size} tasks of a
+     * snapshot.
+     */
+    int[] between(LocalDate from, LocalDate to, Task[] items, long[] ids, int size) {
+        long a = from.toEpochDay();
+        long b = to.toEpochDay();
+        IntList hits = new IntList();
+        for (IdList due : deadlines.subMap(a, true, b, true).values()) {
+            due.forEach(id -> addPosition(id, a, b, items, ids, size, hits));
+        }
+        Span.overlapping(events, a, b, items, ids, size, hits);
+        // a reused id can be filed twice for the task holding it
+        return hits.toSortedDistinctArray();
+    }
+
+    /** The calendar day of a parsed date or date-time, or {@code null}. */
+    static LocalDate day(LocalDate date, LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toLocalDate() : date;
+    }
+
+    /** Files a deadline under its day; an event's span is returned for the caller to insert. */
+    private Span file(Task t, long id) {
+        if (t instanceof Deadline) {
+            LocalDate due = day(((Deadline) t).getDueDate(), ((Deadline) t).getDueDateTime());
+            if (due != null) {
+                deadlines.computeIfAbsent(due.toEpochDay(), k -> new IdList()).add(id);
+            }
+        } else if (t instanceof Event) {
+            Event e = (Event) t;
+            LocalDate start = day(e.getFromDate(), e.getFromDateTime());
+            LocalDate end = day(e.getToDate(), e.getToDateTime());
+            if (start != null && end != null) {
+                return new Span(start.toEpochDay(), end.toEpochDay(), id, null, null);
+            }
+        }
+        return null;
+    }
+
+    /** Adds the 1-based position of {@code id} if the snapshot holds it for a task occurring in {@code [a, b]}. */
+    private static void addPosition(long id, long a, long b, Task[] items, long[] ids, int size, IntList hits) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0 && occurs(items[pos], a, b)) {
+            hits.add(pos + 1);
+        }
+    }
+
+    /** Whether {@code t} is a deadline due or an event running on a day in {@code [a, b]}. */
+    private static boolean occurs(Task t, long a, long b) {
+        if (t instanceof Deadline) {
+            LocalDate due = day(((Deadline) t).getDueDate(), ((Deadline) t).getDueDateTime());
+            return due != null && due.toEpochDay() >= a && due.toEpochDay() <= b;
+        }
+        if (t instanceof Event) {
+            Event e = (Event) t;
+            LocalDate start = day(e.getFromDate(), e.getFromDateTime());
+            LocalDate end = day(e.getToDate(), e.getToDateTime());
+            return start != null && end != null && start.toEpochDay() <= b && end.toEpochDay() >= a;
+        }
+        return false;
+    }
+
+    /** Immutable treap node over an event's inclusive day span. */
+    private static final class Span {
+        static final Comparator<Span> ORDER = Comparator.comparingLong((Span s) -> s.start)
+                .thenComparingLong(s -> s.id);
+
+        private final long start;
+        private final long end;
+        private final long id;
+        private final int priority;
+        private final long maxEnd;
+        private final Span left;
+        private final Span right;
+
+        Span(long start, long end, long id, Span left, Span right) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.priority = mix(id);
+            this.left = left;
+            this.right = right;
+            long max = end;
+            if (left != null && left.maxEnd > max) {
+                max = left.maxEnd;
+            }
+            if (right != null && right.maxEnd > max) {
+                max = right.maxEnd;
+            }
+            this.maxEnd = max;
+        }
+
+        /** Returns a root holding the spans under {@code root} and {@code s}; {@code root} is unchanged. */
+        static Span insert(Span root, Span s) {
+            if (root == null) {
+                return s;
+            }
+            if (s.precedes(root)) {
+                Span l = insert(root.left, s);
+                if (l.priority > root.priority) {
+                    return l.with(l.left, root.with(l.right, root.right));
+                }
+                return root.with(l, root.right);
+            }
+            Span r = insert(root.right, s);
+            if (r.priority > root.priority) {
+                return r.with(root.with(root.left, r.left), r.right);
+            }
+            return root.with(root.left, r);
+        }
+
+        /** A treap over {@code sorted[from..to)}, which is in {@link #ORDER}. */
+        static Span build(Span[] sorted, int from, int to) {
+            if (from >= to) {
+                return null;
+            }
+            int top = from;
+            for (int i = from + 1; i < to; i++) {
+                if (sorted[i].priority > sorted[top].priority) {
+                    top = i;
+                }
+            }
+            return sorted[top].with(build(sorted, from, top), build(sorted, top + 1, to));
+        }
+
+        /** Adds the positions of spans under {@code node} that intersect {@code [a, b]}. */
+        static void overlapping(Span node, long a, long b, Task[] items, long[] ids, int size, IntList out) {
+            while (node != null && node.maxEnd >= a) {
+                overlapping(node.left, a, b, items, ids, size, out);
+                if (node.start > b) {
+                    return; // everything to the right starts later still
+                }
+                if (node.end >= a) {
+                    addPosition(node.id, a, b, items, ids, size, out);
+                }
+                node = node.right;
+            }
+        }
+
+        boolean precedes(Span other) {
+            return ORDER.compare(this, other) < 0;
+        }
+
+        private Span with(Span left, Span right) {
+            return new Span(start, end, id, left, right);
+        }
+
+        /** Murmur3 finalizer, so sequential ids still get a random-looking heap order. */
+        private static int mix(long id) {
+            int h = (int) (id ^ (id >>> 32));
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            h *= 0xC2B2AE35;
+            return h ^ (h >>> 16);
+        }
+    }
+}
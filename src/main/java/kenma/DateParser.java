@@ -0,0 +1,200 @@
+package kenma;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.Temporal;
+import java.util.Locale;
+
+/**
+ * The one place dates are parsed and formatted, shared by the command parser,
+ * tasks and both storage formats.
+ *
+ * <p>
+ * Input is recognized by shape: {@code yyyy-MM-dd} and {@code yyyy-MM-dd HHmm}
+ * (plus {@code yyyy-MM-dd'T'HH:mm} where commands allow it) are checked
+ * character by character and built directly, so neither a formatter nor an
+ * exception is involved, and anything else is reported as {@code null}.
+ * Results match the {@code ofPattern} formatters this replaces, SMART
+ * resolver included: a day past the end of the month is clamped and
+ * {@code 2400} is midnight at the end of the day. Only years past 9999,
+ * written with a leading {@code '+'}, go through the cached formatters.
+ * </p>
+ */
+final class DateParser {
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    private static final DateTimeFormatter ISO_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+    private static final DateTimeFormatter PRETTY_DATE = DateTimeFormatter.ofPattern("MMM d yyyy", Locale.ENGLISH);
+    private static final DateTimeFormatter PRETTY_DATE_TIME = DateTimeFormatter.ofPattern("MMM d yyyy HH:mm",
+            Locale.ENGLISH);
+
+    private DateParser() {
+    }
+
+    /**
+     * Recognizes a stored or typed date after trimming {@code raw}.
+     *
+     * @return a {@link LocalDate}, a {@link LocalDateTime}, or {@code null}
+     */
+    static Temporal parse(String raw) {
+        return parse(raw.trim(), false);
+    }
+
+    /**
+     * Recognizes {@code s} as is. With {@code isIsoTimeAllowed},
+     * {@code yyyy-MM-dd'T'HH:mm} is recognized as well, as the command parser
+     * accepts it.
+     *
+     * @return a {@link LocalDate}, a {@link LocalDateTime}, or {@code null}
+     */
+    static Temporal parse(String s, boolean isIsoTimeAllowed) {
+        int n = s.length();
+        if ((n != 10 && n != 15 && !(isIsoTimeAllowed && n == 16))
+                || s.charAt(4) != '-' || s.charAt(7) != '-') {
+            return parseSignedYear(s, isIsoTimeAllowed);
+        }
+        int y = digits(s, 0, 4);
+        int m = digits(s, 5, 2);
+        int d = digits(s, 8, 2);
+        if (n == 10) {
+            return date(y, m, d);
+        }
+        if (n == 15 && s.charAt(10) == ' ') {
+            return dateTime(y, m, d, digits(s, 11, 2), digits(s, 13, 2));
+        }
+        if (n == 16 && s.charAt(10) == 'T' && s.charAt(13) == ':') {
+            return dateTime(y, m, d, digits(s, 11, 2), digits(s, 14, 2));
+        }
+        return null;
+    }
+
+    /**
+     * {@link #parse(String, boolean)} over the UTF-8 bytes {@code [s, e)} of a
+     * record, without decoding them first.
+     */
+    static Temporal parse(byte[] b, int s, int e) {
+        int n = e - s;
+        if ((n != 10 && n != 15) || b[s + 4] != '-' || b[s + 7] != '-') {
+            if (n > 0 && b[s] == '+') {
+                return parseSignedYear(new String(b, s, n, StandardCharsets.UTF_8), false);
+            }
+            return null;
+        }
+        int y = digits(b, s, 4);
+        int m = digits(b, s + 5, 2);
+        int d = digits(b, s + 8, 2);
+        if (n == 10) {
+            return date(y, m, d);
+        }
+        if (b[s + 10] != ' ') {
+            return null;
+        }
+        return dateTime(y, m, d, digits(b, s + 11, 2), digits(b, s + 13, 2));
+    }
+
+    /** A {@code yyyy-MM-dd} date only, e.g. for {@code on}; {@code null} otherwise. */
+    static LocalDate parseDate(String s) {
+        Temporal when = parse(s, false);
+        return (when instanceof LocalDate) ? (LocalDate) when : null;
+    }
+
+    /** Canonical {@code yyyy-MM-dd} text, as stored in records; built without a formatter. */
+    static String canonical(LocalDate d) {
+        return d.toString();
+    }
+
+    /** Canonical {@code yyyy-MM-dd HHmm} text, as stored in records; built without a formatter. */
+    static String canonical(LocalDateTime dt) {
+        int h = dt.getHour();
+        int m = dt.getMinute();
+        return new StringBuilder(15)
+                .append(dt.toLocalDate()).append(' ')
+                .append((char) ('0' + h / 10)).append((char) ('0' + h % 10))
+                .append((char) ('0' + m / 10)).append((char) ('0' + m % 10))
+                .toString();
+    }
+
+    /** Display text, e.g. {@code Dec 2 2019}. */
+    static String pretty(LocalDate d) {
+        return d.format(PRETTY_DATE);
+    }
+
+    /** Display text, e.g. {@code Dec 2 2019 18:00}. */
+    static String pretty(LocalDateTime dt) {
+        return dt.format(PRETTY_DATE_TIME);
+    }
+
+    private static LocalDate date(int y, int m, int d) {
+        if (y < 1 || m < 1 || m > 12 || d < 1 || d > 31) {
+            return null;
+        }
+        return LocalDate.of(y, m, Math.min(d, Month.of(m).length(Year.isLeap(y))));
+    }
+
+    private static LocalDateTime dateTime(int y, int m, int d, int hh, int mm) {
+        LocalDate day = date(y, m, d);
+        if (day == null) {
+            return null;
+        }
+        if (hh == 24 && mm == 0) {
+            return day.plusDays(1).atStartOfDay();
+        }
+        if (hh < 0 || hh > 23 || mm < 0 || mm > 59) {
+            return null;
+        }
+        return day.atTime(hh, mm);
+    }
+
+    /** Slow path for years past 9999, which the formatters accept with a leading '+'. */
+    private static Temporal parseSignedYear(String s, boolean isIsoTimeAllowed) {
+        if (!s.startsWith("+")) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(s, DATE);
+        } catch (DateTimeParseException ignore) {
+            /* try date-times */ }
+        try {
+            return LocalDateTime.parse(s, DATE_TIME);
+        } catch (DateTimeParseException ignore) {
+            /* try ISO */ }
+        if (isIsoTimeAllowed) {
+            try {
+                return LocalDateTime.parse(s, ISO_DATE_TIME);
+            } catch (DateTimeParseException ignore) {
+                /* not a date */ }
+        }
+        return null;
+    }
+
+    /** Parses {@code count} ASCII digits, or returns -1 if any is not a digit. */
+    private static int digits(byte[] b, int s, int count) {
+        int v = 0;
+        for (int i = s; i < s + count; i++) {
+            int c = b[i] - '0';
+            if (c < 0 || c > 9) {
+                return -1;
+            }
+            v = v * 10 + c;
+        }
+        return v;
+    }
+
+    /** {@link #digits(byte[], int, int)} for characters; only ASCII digits count. */
+    private static int digits(String s, int from, int count) {
+        int v = 0;
+        for (int i = from; i < from + count; i++) {
+            int c = s.charAt(i) - '0';
+            if (c < 0 || c > 9) {
+                return -1;
+            }
+            v = v * 10 + c;
+        }
+        return v;
+    }
+}
@@ -2,20 +2,15 @@ package kenma;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.Locale;
+import java.time.temporal.Temporal;
 
 /** Represents a task that must be completed by a specific time. */
 public class Deadline extends Task {
-    private final String by;
+    /** Raw text; derived lazily for deadlines built from a stored date value. */
+    private String by;
     private LocalDate date;
     private LocalDateTime dateTime;
 
-    private static final DateTimeFormatter FMT_DATE = DateTimeFormatter.ofPattern("MMM d yyyy", Locale.ENGLISH);
-    private static final DateTimeFormatter FMT_DATETIME = DateTimeFormatter.ofPattern("MMM d yyyy HH:mm",
-            Locale.ENGLISH);
-
     public Deadline(String description, String by) {
         super(description, TaskType.DEADLINE);
         if (by == null || by.isBlank()) {
@@ -25,7 +20,32 @@ public class Deadline extends Task {
         parse(by);
     }
 
+    /**
+     * Creates a deadline whose {@code by} was already recognized by the caller
+     * (see {@link DateParser#parse}).
+     *
+     * @param by   raw text, or {@code null} if it is the canonical text of
+     *             {@code when}
+     * @param when a {@link LocalDate}, a {@link LocalDateTime}, or {@code null}
+     *             to display {@code by} as raw text
+     */
+    Deadline(String description, String by, Temporal when) {
+        super(description, TaskType.DEADLINE);
+        if ((by == null && when == null) || (by != null && by.isBlank())) {
+            throw new IllegalArgumentException("Deadline 'by' cannot be empty.");
+        }
+        this.by = by;
+        if (when instanceof LocalDateTime) {
+            this.dateTime = (LocalDateTime) when;
+        } else if (when instanceof LocalDate) {
+            this.date = (LocalDate) when;
+        }
+    }
+
     public String getBy() {
+        if (by == null) {
+            by = (dateTime != null) ? DateParser.canonical(dateTime) : DateParser.canonical(date);
+        }
         return by;
     }
 
@@ -38,29 +58,18 @@ public class Deadline extends Task {
     }
 
     private void parse(String s) {
-        String t = s.trim();
-        try {
-            this.dateTime = LocalDateTime.parse(t, DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
-            this.date = null;
-            return;
-        } catch (DateTimeParseException ignored) {
-        }
-        try {
-            this.date = LocalDate.parse(t, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            this.dateTime = null;
-            return;
-        } catch (DateTimeParseException ignored) {
-        }
-        this.date = null;
-        this.dateTime = null; // fall back to raw display
+        Temporal when = DateParser.parse(s);
+        // anything unrecognized falls back to raw display
+        this.dateTime = (when instanceof LocalDateTime) ? (LocalDateTime) when : null;
+        this.date = (when instanceof LocalDate) ? (LocalDate) when : null;
     }
 
     private String pretty() {
         if (dateTime != null) {
-            return dateTime.format(FMT_DATETIME);
+            return DateParser.pretty(dateTime);
         }
         if (date != null) {
-            return date.format(FMT_DATE);
+            return DateParser.pretty(date);
         }
         return by;
     }
@@ -74,7 +83,7 @@ public class Deadline extends Task {
         if (date != null) {
             return date.atStartOfDay().toString();
         }
-        return by.trim().toLowerCase();
+        return getBy().trim().toLowerCase();
     }
 
     public boolean occursOn(LocalDate target) {
@@ -91,7 +100,7 @@ public class Deadline extends Task {
     }
 
     @Override
-    public String toString() {
-        return "[" + getType().getSymbol() + "]" + super.toString() + " (by: " + pretty() + ")";
+    protected String render(boolean isDone) {
+        return "[" + getType().getSymbol() + "]" + super.render(isDone) + " (by: " + pretty() + ")";
     }
 }
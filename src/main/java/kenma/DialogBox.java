@@ -1,7 +1,5 @@
 package kenma;
 
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
@@ -10,78 +8,101 @@ import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
 import javafx.scene.shape.Circle;
 
+/**
+ * Chat bubble row, built in code rather than from FXML. A box is created once
+ * per visible list cell and re-pointed at whichever {@link ChatMessage} the
+ * cell shows, so its nodes (and the avatar's circular clip) are reused
+ * across messages.
+ */
 public class DialogBox extends HBox {
-    @FXML
-    private Label dialog;
-    @FXML
-    private ImageView displayPicture;
+    private static final double AVATAR_SIZE = 34;
 
-    public DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxml = new FXMLLoader(getClass().getResource("/view/DialogBox.fxml"));
-            fxml.setController(this);
-            fxml.setRoot(this);
-            fxml.load();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+    private final Label dialog = new Label();
+    private final ImageView displayPicture = new ImageView();
+    private final Region spacer = new Region();
+    private final VBox body = new VBox(4);
+    /** Created on the first list result this box shows. */
+    private ResultListView results;
 
-        dialog.setText(text);
+    public DialogBox() {
         dialog.setWrapText(true);
         dialog.setMaxWidth(520); // let long messages wrap
 
-        displayPicture.setImage(img);
+        displayPicture.setFitWidth(AVATAR_SIZE);
+        displayPicture.setFitHeight(AVATAR_SIZE);
+        displayPicture.setPreserveRatio(true);
+        displayPicture.setPickOnBounds(true);
         // circular avatar (radius matches typical 34px image)
-        double r = 17.0;
+        double r = AVATAR_SIZE / 2;
         displayPicture.setClip(new Circle(r, r, r));
 
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        body.getChildren().setAll(dialog);
+
         setSpacing(10);
         setPadding(new Insets(8, 12, 8, 12));
         setMaxWidth(Double.MAX_VALUE); // let row stretch to cell width
     }
 
-    /** Bot (left) bubble. */
-    public static DialogBox getDukeDialog(String text, Image img) {
-        DialogBox db = new DialogBox(text, img);
-        db.alignLeft();
-        db.getStyleClass().add("row-left");
-        db.dialog.getStyleClass().addAll("bubble", "duke-bubble");
-        return db;
-    }
+    /**
+     * Shows {@code message}, reusing this box's nodes.
+     *
+     * @param img avatar of whoever sent it
+     */
+    void show(ChatMessage message, Image img) {
+        dialog.setText(message.getText());
+        displayPicture.setImage(img);
 
-    /** User (right) bubble. */
-    public static DialogBox getUserDialog(String text, Image img) {
-        DialogBox db = new DialogBox(text, img);
-        db.alignRight();
-        db.getStyleClass().add("row-right");
-        db.dialog.getStyleClass().addAll("bubble", "user-bubble");
-        return db;
-    }
+        if (message.getResults() == null) {
+            body.getChildren().setAll(dialog);
+        } else {
+            if (results == null) {
+                results = new ResultListView();
+            }
+            results.setSource(message.getResults());
+            body.getChildren().setAll(dialog, results);
+        }
 
-    /** Error (left, red) bubble. */
-    public static DialogBox getErrorDialog(String text, Image img) {
-        DialogBox db = new DialogBox(text, img);
-        db.alignLeft();
-        db.getStyleClass().add("row-left");
-        db.dialog.getStyleClass().addAll("bubble", "error-bubble");
-        return db;
+        switch (message.getKind()) {
+            case USER: {
+                alignRight();
+                dialog.getStyleClass().setAll("label", "bubble", "user-bubble");
+                break;
+            }
+            case ERROR: {
+                alignLeft();
+                dialog.getStyleClass().setAll("label", "bubble", "error-bubble");
+                break;
+            }
+            case PENDING: {
+                alignLeft();
+                dialog.getStyleClass().setAll("label", "bubble", "duke-bubble", "pending-bubble");
+                break;
+            }
+            default: {
+                alignLeft();
+                dialog.getStyleClass().setAll("label", "bubble", "duke-bubble");
+                break;
+            }
+        }
     }
 
     /* -------- layout helpers -------- */
 
     /** Left: [avatar][text] */
     private void alignLeft() {
-        getChildren().setAll(displayPicture, dialog);
+        getChildren().setAll(displayPicture, body);
+        getStyleClass().setAll("row-left");
         setAlignment(Pos.TOP_LEFT);
     }
 
     /** Right: [spacer][text][avatar] */
     private void alignRight() {
-        Region spacer = new Region();
-        HBox.setHgrow(spacer, Priority.ALWAYS);
-        getChildren().setAll(spacer, dialog, displayPicture);
+        getChildren().setAll(spacer, body, displayPicture);
+        getStyleClass().setAll("row-right");
         setAlignment(Pos.TOP_RIGHT);
     }
 }
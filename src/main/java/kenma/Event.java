@@ -2,24 +2,19 @@ package kenma;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.Locale;
+import java.time.temporal.Temporal;
 
 /** Represents an event that spans a time window with a start and an end. */
 public class Event extends Task {
-    private final String from;
-    private final String to;
+    /** Raw texts; derived lazily for events built from stored date values. */
+    private String from;
+    private String to;
 
     private LocalDate fromDate;
     private LocalDateTime fromDateTime;
     private LocalDate toDate;
     private LocalDateTime toDateTime;
 
-    private static final DateTimeFormatter FMT_DATE = DateTimeFormatter.ofPattern("MMM d yyyy", Locale.ENGLISH);
-    private static final DateTimeFormatter FMT_DATETIME = DateTimeFormatter.ofPattern("MMM d yyyy HH:mm",
-            Locale.ENGLISH);
-
     public Event(String description, String from, String to) {
         super(description, TaskType.EVENT);
         if (from == null || from.isBlank()) {
@@ -33,11 +28,51 @@ public class Event extends Task {
         parseAndValidate();
     }
 
+    /**
+     * Creates an event whose times were already recognized by the caller (see
+     * {@link DateParser#parse}). Each {@code when} is a
+     * {@link LocalDate}, a {@link LocalDateTime}, or {@code null}; a raw text may
+     * be {@code null} if it is the canonical text of its {@code when}.
+     *
+     * @throws IllegalArgumentException if a time is missing or end is not after
+     *                                  start
+     */
+    Event(String description, String from, Temporal fromWhen, String to, Temporal toWhen) {
+        super(description, TaskType.EVENT);
+        if ((from == null && fromWhen == null) || (from != null && from.isBlank())) {
+            throw new IllegalArgumentException("Event 'from' cannot be empty.");
+        }
+        if ((to == null && toWhen == null) || (to != null && to.isBlank())) {
+            throw new IllegalArgumentException("Event 'to' cannot be empty.");
+        }
+        this.from = from;
+        this.to = to;
+        if (fromWhen instanceof LocalDateTime) {
+            this.fromDateTime = (LocalDateTime) fromWhen;
+        } else if (fromWhen instanceof LocalDate) {
+            this.fromDate = (LocalDate) fromWhen;
+        }
+        if (toWhen instanceof LocalDateTime) {
+            this.toDateTime = (LocalDateTime) toWhen;
+        } else if (toWhen instanceof LocalDate) {
+            this.toDate = (LocalDate) toWhen;
+        }
+        validate();
+    }
+
     public String getFrom() {
+        if (from == null) {
+            from = (fromDateTime != null)
+                    ? DateParser.canonical(fromDateTime)
+                    : DateParser.canonical(fromDate);
+        }
         return from;
     }
 
     public String getTo() {
+        if (to == null) {
+            to = (toDateTime != null) ? DateParser.canonical(toDateTime) : DateParser.canonical(toDate);
+        }
         return to;
     }
 
@@ -57,23 +92,17 @@ public class Event extends Task {
         return toDate;
     }
 
+    /** Whether {@code target} falls within the event's span of days, ends included. */
     public boolean occursOn(LocalDate target) {
         if (target == null) {
             return false;
         }
-        boolean matchFrom = false;
-        boolean matchTo = false;
-        if (this.fromDateTime != null) {
-            matchFrom = this.fromDateTime.toLocalDate().equals(target);
-        } else if (this.fromDate != null) {
-            matchFrom = this.fromDate.equals(target);
-        }
-        if (this.toDateTime != null) {
-            matchTo = this.toDateTime.toLocalDate().equals(target);
-        } else if (this.toDate != null) {
-            matchTo = this.toDate.equals(target);
+        LocalDate start = DateIndex.day(fromDate, fromDateTime);
+        LocalDate end = DateIndex.day(toDate, toDateTime);
+        if (start == null || end == null) {
+            return target.equals(start) || target.equals(end);
         }
-        return matchFrom || matchTo;
+        return !target.isBefore(start) && !target.isAfter(end);
     }
 
     private void parseAndValidate() {
@@ -84,7 +113,10 @@ public class Event extends Task {
 
         parseInto(from.trim(), true);
         parseInto(to.trim(), false);
+        validate();
+    }
 
+    private void validate() {
         LocalDateTime start = (fromDateTime != null)
                 ? fromDateTime
                 : (fromDate != null ? fromDate.atStartOfDay() : null);
@@ -104,33 +136,24 @@ public class Event extends Task {
         if (raw == null || raw.isBlank()) {
             return;
         }
-        try {
-            LocalDateTime dt = LocalDateTime.parse(raw, DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
-            if (isFrom) {
-                this.fromDateTime = dt;
-            } else {
-                this.toDateTime = dt;
-            }
-        } catch (DateTimeParseException ignored) {
-            try {
-                LocalDate d = LocalDate.parse(raw, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-                if (isFrom) {
-                    this.fromDate = d;
-                } else {
-                    this.toDate = d;
-                }
-            } catch (DateTimeParseException ignored2) {
-                // leave null; validated later
-            }
+        Temporal when = DateParser.parse(raw, false); // unrecognized stays null; validated later
+        LocalDateTime dt = (when instanceof LocalDateTime) ? (LocalDateTime) when : null;
+        LocalDate d = (when instanceof LocalDate) ? (LocalDate) when : null;
+        if (isFrom) {
+            this.fromDateTime = dt;
+            this.fromDate = d;
+        } else {
+            this.toDateTime = dt;
+            this.toDate = d;
         }
     }
 
     private String prettyDate(String raw, LocalDate d, LocalDateTime dt) {
         if (dt != null) {
-            return dt.format(FMT_DATETIME);
+            return DateParser.pretty(dt);
         }
         if (d != null) {
-            return d.format(FMT_DATE);
+            return DateParser.pretty(d);
         }
         return raw;
     }
@@ -144,7 +167,7 @@ public class Event extends Task {
         if (fromDate != null) {
             return fromDate.atStartOfDay().toString();
         }
-        return from.trim().toLowerCase();
+        return getFrom().trim().toLowerCase();
     }
 
     @Override
@@ -155,14 +178,14 @@ public class Event extends Task {
         if (toDate != null) {
             return toDate.atStartOfDay().toString();
         }
-        return to.trim().toLowerCase();
+        return getTo().trim().toLowerCase();
     }
 
     @Override
-    public String toString() {
+    protected String render(boolean isDone) {
         return "[" + getType().getSymbol() + "]"
-                + super.toString()
-                + " (from: " + prettyDate(from, fromDate, fromDateTime)
-                + " to: " + prettyDate(to, toDate, toDateTime) + ")";
+                + super.render(isDone)
+                + " (from: " + prettyDate(getFrom(), fromDate, fromDateTime)
+                + " to: " + prettyDate(getTo(), toDate, toDateTime) + ")";
     }
 }
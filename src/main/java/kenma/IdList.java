@@ -0,0 +1,39 @@
+package kenma;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Append-only {@code long} array of task ids for the indexes of a
+ * {@link TaskList}: the list's writer appends while readers scan without
+ * locking. A scan sees at least every id added before it started.
+ */
+final class IdList {
+    private volatile long[] a = new long[4];
+    private volatile int n;
+
+    /** Only the list's writer may call this. */
+    void add(long id) {
+        long[] arr = a;
+        int size = n;
+        if (size == arr.length) {
+            arr = Arrays.copyOf(arr, size * 2);
+            a = arr;
+        }
+        arr[size] = id;
+        n = size + 1;
+    }
+
+    int size() {
+        return n;
+    }
+
+    /** Calls {@code action} with each id, in the order added. */
+    void forEach(LongConsumer action) {
+        int size = n; // read first: any array read afterwards holds at least this many ids
+        long[] arr = a;
+        for (int i = 0; i < size; i++) {
+            action.accept(arr[i]);
+        }
+    }
+}
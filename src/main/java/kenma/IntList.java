@@ -0,0 +1,48 @@
+package kenma;
+
+import java.util.Arrays;
+
+/** Minimal growable {@code int} array for the task indexes. */
+final class IntList {
+    private int[] a = new int[4];
+    private int n;
+
+    void add(int v) {
+        if (n == a.length) {
+            a = Arrays.copyOf(a, n * 2);
+        }
+        a[n++] = v;
+    }
+
+    int get(int i) {
+        return a[i];
+    }
+
+    int size() {
+        return n;
+    }
+
+    /** Copy of the values in the order added. */
+    int[] toArray() {
+        return Arrays.copyOf(a, n);
+    }
+
+    /** Copy of the values in ascending order. */
+    int[] toSortedArray() {
+        int[] out = Arrays.copyOf(a, n);
+        Arrays.sort(out);
+        return out;
+    }
+
+    /** Copy of the values in ascending order, each once. */
+    int[] toSortedDistinctArray() {
+        int[] out = toSortedArray();
+        int k = 0;
+        for (int i = 0; i < out.length; i++) {
+            if (k == 0 || out[i] != out[k - 1]) {
+                out[k++] = out[i];
+            }
+        }
+        return k == out.length ? out : Arrays.copyOf(out, k);
+    }
+}
@@ -1,97 +1,215 @@
 package kenma;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.Locale;
 
 /**
  * Entry point and top-level coordinator of the Kenma/Duke application.
+ *
+ * <p>
+ * {@link #getReply} may be called from several threads at once: queries read
+ * the {@link TaskList} without locking, and mutations are serialized together
+ * with their persistence.
+ * </p>
  */
 public class Kenma {
-    private final Ui ui;
+    private static final String LOGO = " _  __ ______ _   _ __  __       \n"
+            + "| |/ /|  ____| \\ | |  \\/  |   /\\ \n"
+            + "| ' / | |__  |  \\| | \\  / |  /  \\ \n"
+            + "|  <  |  __| | . ` | |\\/| | / /\\ \\\n"
+            + "| . \\ | |____| |\\  | |  | |/ ____ \\\n"
+            + "|_|\\_\\|______|_| \\_|_|  |_/_/    \\_\\\n";
+
     private final Storage storage;
-    private final TaskList tasks;
+    private final TaskStore tasks;
+    /**
+     * Held across a mutation and its persistence so concurrent callers of
+     * {@link #getReply} record changes in the order they were applied. Reads
+     * do not take it.
+     */
+    private final Object writeLock = new Object();
+    /** Undo/redo steps of every mutation; guarded by {@link #writeLock}. */
+    private final UndoLog history = new UndoLog(Math.max(1, Integer.getInteger("kenma.undoLimit", 1000)));
+    private WriteBehindSaver saver;
+    /** Set while {@link #runBatch} runs: mutations only count towards the next checkpoint. */
+    private boolean isBatching;
+    private int checkpointEvery;
+    private int pendingChanges;
 
     public Kenma(String filePath) {
-        this.ui = new Ui();
-        this.storage = new Storage(filePath);
-        TaskList loaded;
+        this(new Storage(filePath));
+    }
+
+    /** Creates an engine over a preconfigured storage (e.g. a journaled one). */
+    public Kenma(Storage storage) {
+        this(storage, false);
+    }
+
+    /**
+     * Creates an engine over a preconfigured storage. With {@code isColumnar}
+     * the tasks are held in primitive columns (see {@link ReadMostlyTaskList}),
+     * which fits lists of millions of tasks in a fraction of the memory. Its
+     * list-type replies are views that the next insert or removal invalidates,
+     * so such an engine is for one caller at a time, like the console.
+     */
+    public Kenma(Storage storage, boolean isColumnar) {
+        this.storage = storage;
+        TaskStore loaded;
         try {
-            loaded = new TaskList(storage.load());
+            loaded = isColumnar
+                    ? new ReadMostlyTaskList(storage.loadInto(new ColumnarTaskList()))
+                    : new TaskList(storage.load());
         } catch (Exception e) {
-            loaded = new TaskList();
+            loaded = isColumnar ? new ReadMostlyTaskList(new ColumnarTaskList()) : new TaskList();
         }
         this.tasks = loaded;
     }
 
-    /** GUI single-turn response. */
+    /** GUI single-turn response, as text. */
     public String getResponse(String input) {
+        return getReply(input).toText();
+    }
+
+    /**
+     * GUI single-turn response. List-type commands return their tasks rather
+     * than rendered text (see {@link Reply}).
+     */
+    public Reply getReply(String input) {
         if (input == null || input.isBlank()) {
-            return "";
+            return Reply.text("");
         }
         try {
             Parser.Parsed p = Parser.parse(input);
             switch (p.cmd) {
                 case BYE:
-                    return "Bye. Hope to see you again soon!";
+                    if (saver != null) {
+                        saver.flush();
+                    }
+                    return Reply.text("Bye. Hope to see you again soon!");
 
                 case LIST:
-                    return formatList("Here are the tasks in your list:", tasks.all());
+                    return Reply.tasks("Here are the tasks in your list:", tasks.snapshot());
 
                 case MARK: {
-                    int idx = requireValidIndex(p.a, tasks.size());
-                    tasks.get(idx).markAsDone();
-                    trySave();
-                    return "Nice! I've marked this task as done:\n" + tasks.get(idx);
+                    if (!isSingleIndex(p.a)) {
+                        return Reply.text(markAll(p.a, true));
+                    }
+                    Task t;
+                    synchronized (writeLock) {
+                        t = setDone(requireValidIndex(p.a, tasks.size()), true, true);
+                    }
+                    return Reply.text("Nice! I've marked this task as done:\n" + t);
                 }
 
                 case UNMARK: {
-                    int idx = requireValidIndex(p.a, tasks.size());
-                    tasks.get(idx).markAsNotDone();
-                    trySave();
-                    return "OK, I've marked this task as not done yet:\n" + tasks.get(idx);
+                    if (!isSingleIndex(p.a)) {
+                        return Reply.text(markAll(p.a, false));
+                    }
+                    Task t;
+                    synchronized (writeLock) {
+                        t = setDone(requireValidIndex(p.a, tasks.size()), false, true);
+                    }
+                    return Reply.text("OK, I've marked this task as not done yet:\n" + t);
                 }
 
                 case DELETE: {
-                    int idx = requireValidIndex(p.a, tasks.size());
-                    Task removed = tasks.remove(idx);
-                    trySave();
-                    return "Noted. I've removed this task:\n" + removed
-                            + String.format("%nNow you have %d tasks in the list.", tasks.size());
+                    if (!isSingleIndex(p.a)) {
+                        return Reply.text(deleteAll(p.a));
+                    }
+                    Task removed;
+                    int left;
+                    synchronized (writeLock) {
+                        removed = takeOut(requireValidIndex(p.a, tasks.size()), true);
+                        left = tasks.size();
+                    }
+                    return Reply.text("Noted. I've removed this task:\n" + removed
+                            + String.format("%nNow you have %d tasks in the list.", left));
                 }
 
                 case TODO:
-                    return addTaskAndRespond(new Todo(p.a));
+                    return Reply.text(addTaskAndRespond(new Todo(p.a)));
 
                 case DEADLINE:
-                    return addTaskAndRespond(new Deadline(p.a, p.b));
+                    return Reply.text(addTaskAndRespond(new Deadline(p.a, p.b)));
 
                 case EVENT:
-                    return addTaskAndRespond(new Event(p.a, p.b, p.c));
+                    return Reply.text(addTaskAndRespond(new Event(p.a, p.b, p.c)));
 
                 case ON:
-                    return tasksOnDateAsText(p.a);
+                    return tasksOnDate(p.a, p.b);
 
                 case FIND: {
                     List<Task> matches = tasks.find(p.a);
-                    return formatList(String.format("Here are the matching tasks containing \"%s\":", p.a), matches);
+                    return Reply.tasks(String.format("Here are the matching tasks containing \"%s\":", p.a), matches);
                 }
 
                 case SORT: {
                     String mode = (p.a == null) ? "" : p.a;
                     List<Task> sorted = sortTasks(mode);
-                    return formatList("Sorted tasks (" + mode + "):", sorted);
+                    return Reply.tasks("Sorted tasks (" + mode + "):", sorted);
                 }
 
+                case UNDO:
+                    return Reply.text(undo());
+
+                case REDO:
+                    return Reply.text(redo());
+
                 default:
-                    return "";
+                    return Reply.text("");
             }
         } catch (DukeException e) {
-            return "Error: " + e.getMessage();
+            return Reply.text("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Switches full-file saves to write-behind: mutations only mark the list
+     * dirty and a background thread saves once per {@code window}. Pending
+     * changes are flushed on {@code bye}, {@link #close()} and JVM shutdown.
+     * Journaled storages keep appending records instead.
+     */
+    public void enableWriteBehind(Duration window) {
+        if (saver != null) {
+            return;
+        }
+        saver = new WriteBehindSaver(storage, tasks::snapshot, window);
+        WriteBehindSaver pending = saver;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                pending.flush();
+            } catch (DukeException e) {
+                System.err.println("[WARN] " + e.getMessage());
+            }
+        }, "kenma-flush"));
+    }
+
+    /** Number of tasks in the list. */
+    int taskCount() {
+        return tasks.size();
+    }
+
+    /**
+     * Flushes pending writes and releases storage resources.
+     *
+     * @throws DukeException if the final save fails; storage is still released
+     */
+    public void close() {
+        try {
+            if (saver != null) {
+                saver.close();
+            }
+        } finally {
+            storage.close();
         }
     }
 
@@ -108,83 +226,41 @@ public class Kenma {
                 + " in your list.\nTry: todo, deadline, event, list, find. Type 'bye' to exit.";
     }
 
-    private String tasksOnDateAsText(String dateStr) {
-        StringBuilder sb = new StringBuilder();
-        try {
-            LocalDate target = LocalDate.parse(dateStr, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            boolean found = false;
-            sb.append("Tasks on ").append(target).append(":\n");
-            for (int i = 0; i < tasks.size(); i++) {
-                Task t = tasks.get(i + 1); // TaskList#get is 1-based
-                if (t instanceof Deadline && ((Deadline) t).occursOn(target)) {
-                    sb.append(String.format(" %d.%s%n", i + 1, t));
-                    found = true;
-                } else if (t instanceof Event && ((Event) t).occursOn(target)) {
-                    sb.append(String.format(" %d.%s%n", i + 1, t));
-                    found = true;
-                }
-            }
-            if (!found) {
-                sb.append(" No tasks on this date.");
-            }
-        } catch (DateTimeParseException e) {
-            sb.append(" Please provide a valid date in yyyy-MM-dd format.");
+    /**
+     * Lists deadlines and events on {@code dateStr}, or on any day from
+     * {@code dateStr} to {@code toStr} when a range is given, numbered by
+     * their positions in the list.
+     */
+    private Reply tasksOnDate(String dateStr, String toStr) {
+        LocalDate target = DateParser.parseDate(dateStr);
+        LocalDate end = (toStr == null) ? target : DateParser.parseDate(toStr);
+        if (target == null || end == null) {
+            return Reply.text("Please provide a valid date in yyyy-MM-dd format.");
+        }
+        TaskStore.Hits hits = tasks.occurringBetween(target, end);
+        String header = "Tasks on " + target + (toStr == null ? "" : " to " + end) + ":";
+        if (hits.size() == 0) {
+            return Reply.text(header + "\n" + (toStr == null ? " No tasks on this date." : " No tasks in this range."));
         }
-        return sb.toString().trim();
+        return Reply.hits(header, hits);
     }
 
+    /** Tasks in the order named by {@code mode}; an unknown mode keeps list order. */
     private List<Task> sortTasks(String mode) {
-        return tasks.all().stream()
-                .sorted((a, b) -> {
-                    switch (mode) {
-                        case "by name": {
-                            return a.getDescription().compareToIgnoreCase(b.getDescription());
-                        }
-                        case "by status": {
-                            return Boolean.compare(a.isDone(), b.isDone());
-                        }
-                        case "by time": {
-                            LocalDateTime ta = extractDateTime(a);
-                            LocalDateTime tb = extractDateTime(b);
-                            if (ta == null && tb == null) {
-                                return 0;
-                            }
-                            if (ta == null) {
-                                return 1;
-                            }
-                            if (tb == null) {
-                                return -1;
-                            }
-                            return ta.compareTo(tb);
-                        }
-                        default: {
-                            return 0;
-                        }
-                    }
-                })
-                .toList();
-    }
-
-    private LocalDateTime extractDateTime(Task t) {
-        if (t instanceof Deadline) {
-            Deadline d = (Deadline) t;
-            if (d.getDueDateTime() != null) {
-                return d.getDueDateTime();
+        switch (mode) {
+            case "by name": {
+                return tasks.sorted(TaskStore.SortKey.NAME);
             }
-            if (d.getDueDate() != null) {
-                return d.getDueDate().atStartOfDay();
+            case "by status": {
+                return tasks.sorted(TaskStore.SortKey.STATUS);
             }
-        }
-        if (t instanceof Event) {
-            Event e = (Event) t;
-            if (e.getFromDateTime() != null) {
-                return e.getFromDateTime();
+            case "by time": {
+                return tasks.sorted(TaskStore.SortKey.TIME);
             }
-            if (e.getFromDate() != null) {
-                return e.getFromDate().atStartOfDay();
+            default: {
+                return tasks.snapshot();
             }
         }
-        return null;
     }
 
     /** Validate 1-based index string and return it as int. */
@@ -204,124 +280,461 @@ public class Kenma {
         return idx;
     }
 
-    private void trySave() {
+    /** Whether {@code spec} names one task rather than a bulk selection. */
+    private static boolean isSingleIndex(String spec) {
+        return !spec.equals(Parser.WHERE_DONE) && !spec.equals(Parser.WHERE_NOT_DONE)
+                && spec.indexOf(',') < 0 && spec.indexOf('-') < 0;
+    }
+
+    /**
+     * The ascending 1-based positions a bulk {@code mark}, {@code unmark} or
+     * {@code delete} applies to. Callers hold writeLock so the positions stay
+     * valid until the command runs.
+     */
+    private int[] select(String spec) {
+        if (spec.equals(Parser.WHERE_DONE) || spec.equals(Parser.WHERE_NOT_DONE)) {
+            boolean isDone = spec.equals(Parser.WHERE_DONE);
+            List<Task> all = tasks.snapshot();
+            int[] positions = new int[all.size()];
+            int n = 0;
+            for (int i = 0; i < all.size(); i++) {
+                if (all.get(i).isDone() == isDone) {
+                    positions[n++] = i + 1;
+                }
+            }
+            return Arrays.copyOf(positions, n);
+        }
+        return Selection.parse(spec, tasks.size());
+    }
+
+    /** Bulk {@code mark}/{@code unmark}: one pass over the list, one undo step, one write. */
+    private String markAll(String spec, boolean isDone) {
+        int changed;
+        synchronized (writeLock) {
+            changed = setDoneAll(select(spec), isDone, true).length;
+        }
+        String count = changed + (changed == 1 ? " task" : " tasks");
+        return isDone
+                ? "Nice! I've marked " + count + " as done."
+                : "OK, I've marked " + count + " as not done yet.";
+    }
+
+    /** Bulk {@code delete}: one pass over the list, one undo step, one write. */
+    private String deleteAll(String spec) {
+        int removed;
+        int left;
+        synchronized (writeLock) {
+            removed = takeOutAll(select(spec), true).length;
+            left = tasks.size();
+        }
+        return "Noted. I've removed " + removed + (removed == 1 ? " task" : " tasks") + ".\n"
+                + String.format("Now you have %d tasks in the list.", left);
+    }
+
+    /**
+     * Persists the latest mutation: a batch defers it to the next checkpoint, a
+     * journaled storage gets the single record, write-behind mode schedules a
+     * background save, and otherwise the whole list is rewritten.
+     */
+    private void trySave(Runnable journalRecord) {
+        if (isBatching) {
+            pendingChanges++;
+            if (checkpointEvery > 0 && pendingChanges >= checkpointEvery) {
+                checkpoint();
+            }
+            return;
+        }
         try {
-            storage.save(tasks.all());
+            if (storage.isJournaled()) {
+                journalRecord.run();
+                storage.compactIfDue(tasks.all());
+            } else if (saver != null) {
+                saver.markDirty();
+            } else {
+                storage.save(tasks.all());
+            }
         } catch (Exception ignore) {
         }
     }
 
+    /** Saves the whole list if a batch left unsaved changes. */
+    private void checkpoint() {
+        if (pendingChanges == 0) {
+            return;
+        }
+        try {
+            storage.save(tasks.all());
+            pendingChanges = 0;
+        } catch (DukeException e) {
+            System.err.println("[WARN] Checkpoint save failed: " + e.getMessage());
+        }
+    }
+
     private String addTaskAndRespond(Task t) {
-        tasks.add(t);
-        trySave();
+        int count;
+        synchronized (writeLock) {
+            count = putBack(tasks.size() + 1, t, true);
+        }
         return "Got it. I've added this task:\n" + t
-                + String.format("%nNow you have %d tasks in the list.", tasks.size());
+                + String.format("%nNow you have %d tasks in the list.", count);
+    }
+
+    /** Reverts the latest change still in the history and persists the inverse. */
+    private String undo() {
+        synchronized (writeLock) {
+            UndoLog.Step step = history.nextUndo();
+            if (step == null) {
+                throw new DukeException("Nothing to undo.");
+            }
+            switch (step.kind) {
+                case ADD: {
+                    takeOutAll(step.positions, false);
+                    break;
+                }
+                case DELETE: {
+                    putBackAll(step.positions, step.tasks, false);
+                    break;
+                }
+                default: {
+                    setDoneAll(step.positions, step.kind == UndoLog.Kind.UNMARK, false);
+                    break;
+                }
+            }
+            history.undone();
+            return describe("Undid ", step);
+        }
+    }
+
+    /** Applies the latest undone change again and persists it. */
+    private String redo() {
+        synchronized (writeLock) {
+            UndoLog.Step step = history.nextRedo();
+            if (step == null) {
+                throw new DukeException("Nothing to redo.");
+            }
+            switch (step.kind) {
+                case ADD: {
+                    putBackAll(step.positions, step.tasks, false);
+                    break;
+                }
+                case DELETE: {
+                    takeOutAll(step.positions, false);
+                    break;
+                }
+                default: {
+                    setDoneAll(step.positions, step.kind == UndoLog.Kind.MARK, false);
+                    break;
+                }
+            }
+            history.redone();
+            return describe("Redid ", step);
+        }
+    }
+
+    private static String describe(String verb, UndoLog.Step step) {
+        String kind = step.kind.name().toLowerCase(Locale.ROOT);
+        if (step.tasks.length == 1) {
+            return verb + kind + ":\n" + step.tasks[0];
+        }
+        return verb + kind + " of " + step.tasks.length + " tasks.";
     }
 
-    private String formatList(String header, List<Task> list) {
-        if (list.isEmpty()) {
-            return header + System.lineSeparator() + "(no tasks)";
+    /*
+     * The mutations below persist themselves and, with isRecorded, become the
+     * newest undo step. Callers hold writeLock (the CLI runs on one thread).
+     */
+
+    /** Inserts {@code t} at the 1-based index (appends at size + 1) and returns the new size. */
+    private int putBack(int idx1Based, Task t, boolean isRecorded) {
+        boolean isAppend = idx1Based == tasks.size() + 1;
+        tasks.insert(idx1Based, t);
+        if (isRecorded) {
+            history.record(UndoLog.Kind.ADD, idx1Based, t);
+        }
+        trySave(() -> {
+            if (isAppend) {
+                storage.logAdd(t);
+            } else {
+                storage.logInsert(idx1Based, t);
+            }
+        });
+        return tasks.size();
+    }
+
+    private Task takeOut(int idx1Based, boolean isRecorded) {
+        Task removed = tasks.remove(idx1Based);
+        if (isRecorded) {
+            history.record(UndoLog.Kind.DELETE, idx1Based, removed);
+        }
+        trySave(() -> storage.logRemove(idx1Based));
+        return removed;
+    }
+
+    /** Marks or unmarks; only an actual change of status is recorded. */
+    private Task setDone(int idx1Based, boolean isDone, boolean isRecorded) {
+        boolean isChange = tasks.get(idx1Based).isDone() != isDone;
+        Task t = isDone ? tasks.mark(idx1Based) : tasks.unmark(idx1Based);
+        if (isRecorded && isChange) {
+            history.record(isDone ? UndoLog.Kind.MARK : UndoLog.Kind.UNMARK, idx1Based, t);
+        }
+        trySave(() -> {
+            if (isDone) {
+                storage.logMark(idx1Based);
+            } else {
+                storage.logUnmark(idx1Based);
+            }
+        });
+        return t;
+    }
+
+    /*
+     * Bulk forms of the above: one pass over the list, one undo step and one
+     * journal record (or save). A single position takes the single path.
+     */
+
+    private void putBackAll(int[] positions, Task[] ts, boolean isRecorded) {
+        if (positions.length == 1) {
+            putBack(positions[0], ts[0], isRecorded);
+            return;
+        }
+        tasks.insertAll(positions, ts);
+        if (isRecorded) {
+            history.record(UndoLog.Kind.ADD, positions, ts);
+        }
+        trySave(() -> storage.logInsertAll(positions, ts));
+    }
+
+    private Task[] takeOutAll(int[] positions, boolean isRecorded) {
+        if (positions.length == 1) {
+            return new Task[] { takeOut(positions[0], isRecorded) };
+        }
+        if (positions.length == 0) {
+            return new Task[0];
+        }
+        Task[] removed = tasks.removeAll(positions);
+        if (isRecorded) {
+            history.record(UndoLog.Kind.DELETE, positions, removed);
         }
-        String body = IntStream.range(0, list.size())
-                .mapToObj(i -> String.format("%d.%s", i + 1, list.get(i)))
-                .collect(Collectors.joining(System.lineSeparator()));
-        return header + System.lineSeparator() + body;
+        trySave(() -> storage.logRemoveAll(positions));
+        return removed;
     }
 
-    /** CLI main – optional. */
+    /** Returns the positions whose status actually changed; only those are recorded and written. */
+    private int[] setDoneAll(int[] positions, boolean isDone, boolean isRecorded) {
+        int[] changed = tasks.setDoneAll(positions, isDone);
+        if (changed.length == 0) {
+            return changed;
+        }
+        if (isRecorded) {
+            Task[] ts = new Task[changed.length];
+            for (int k = 0; k < changed.length; k++) {
+                ts[k] = tasks.get(changed[k]);
+            }
+            history.record(isDone ? UndoLog.Kind.MARK : UndoLog.Kind.UNMARK, changed, ts);
+        }
+        trySave(() -> storage.logMarkAll(changed, isDone));
+        return changed;
+    }
+
+    /**
+     * CLI main – optional. Usage:
+     * {@code [--journal] [--columnar] [--batch <script> [--checkpoint <n>]] [path]}.
+     */
     public static void main(String[] args) {
-        String path = (args.length > 0) ? args[0] : "data/kenma.txt";
-        new Kenma(path).run();
+        String path = "data/kenma.txt";
+        boolean isJournaled = false;
+        boolean isColumnar = false;
+        String script = null;
+        int checkpointEvery = 0;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--journal")) {
+                isJournaled = true;
+            } else if (args[i].equals("--columnar")) {
+                isColumnar = true;
+            } else if (args[i].equals("--batch") && i + 1 < args.length) {
+                script = args[++i];
+            } else if (args[i].equals("--checkpoint") && i + 1 < args.length) {
+                checkpointEvery = parseCheckpoint(args[++i]);
+            } else {
+                path = args[i];
+            }
+        }
+        Kenma kenma = new Kenma(new Storage(path, isJournaled), isColumnar);
+        if (script == null) {
+            kenma.run();
+            return;
+        }
+        try {
+            kenma.runBatch(Path.of(script), checkpointEvery);
+        } catch (IOException e) {
+            System.err.println("Failed to read " + script + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /** The {@code --checkpoint} value, a non-negative count; prints the usage and exits otherwise. */
+    private static int parseCheckpoint(String arg) {
+        try {
+            int n = Integer.parseInt(arg);
+            if (n >= 0) {
+                return n;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the usage line
+        }
+        System.err.println("--checkpoint expects a non-negative number of changes, got: " + arg);
+        System.err.println("Usage: Kenma [--journal] [--columnar] [--batch <script> [--checkpoint <n>]] [path]");
+        System.exit(2);
+        return 0;
     }
 
     /** Classic CLI run loop. */
     private void run() {
-        String logo = " _  __ ______ _   _ __  __       \n"
-                + "| |/ /|  ____| \\ | |  \\/  |   /\\ \n"
-                + "| ' / | |__  |  \\| | \\  / |  /  \\ \n"
-                + "|  <  |  __| | . ` | |\\/| | / /\\ \\\n"
-                + "| . \\ | |____| |\\  | |  | |/ ____ \\\n"
-                + "|_|\\_\\|______|_| \\_|_|  |_/_/    \\_\\\n";
-        ui.showWelcome(logo);
+        Ui ui = new Ui();
+        ui.showWelcome(LOGO);
 
         while (true) {
             String input = ui.readCommand();
             if (input == null) {
+                close();
                 ui.showBye();
                 break;
             }
             if (input.isEmpty()) {
                 continue;
             }
-            try {
-                Parser.Parsed p = Parser.parse(input);
-                switch (p.cmd) {
-                    case BYE:
-                        ui.showBye();
-                        return;
-                    case LIST:
-                        ui.showList(tasks.all());
-                        break;
-                    case MARK: {
-                        int idx = requireValidIndex(p.a, tasks.size());
-                        tasks.get(idx).markAsDone();
-                        ui.showMarked(tasks.get(idx));
-                        trySave();
-                        break;
+            if (!execute(input, ui)) {
+                close();
+                ui.showBye();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs a command script as one transaction: every command is applied to the
+     * task list with output buffered, and the list is saved once at the end (and
+     * every {@code checkpointEvery} mutations, if positive) instead of after each
+     * one. Stops early at {@code bye}. If the script cannot be read, changes
+     * since the last checkpoint are not saved.
+     *
+     * @param script          file with one command per line
+     * @param checkpointEvery mutations between intermediate saves; 0 for none
+     * @throws IOException if reading the script fails
+     */
+    public void runBatch(Path script, int checkpointEvery) throws IOException {
+        runBatch(script, checkpointEvery, new Ui(false));
+    }
+
+    /**
+     * Runs a command script as {@link #runBatch(Path, int)} does, writing the
+     * transcript to {@code transcript} instead of standard output.
+     */
+    public void runBatch(Path script, int checkpointEvery, Writer transcript) throws IOException {
+        runBatch(script, checkpointEvery, new Ui(transcript, false));
+    }
+
+    private void runBatch(Path script, int checkpointEvery, Ui out) throws IOException {
+        out.showWelcome(LOGO);
+        this.checkpointEvery = checkpointEvery;
+        isBatching = true;
+        try (BufferedReader in = Files.newBufferedReader(script, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String input = line.trim();
+                if (!input.isEmpty() && !execute(input, out)) {
+                    break;
+                }
+            }
+            checkpoint();
+        } finally {
+            isBatching = false;
+            close();
+            out.showBye();
+            out.flush();
+        }
+    }
+
+    /**
+     * Executes one CLI command, printing through {@code ui}.
+     *
+     * @return {@code false} if the command was {@code bye}
+     */
+    private boolean execute(String input, Ui ui) {
+        try {
+            Parser.Parsed p = Parser.parse(input);
+            switch (p.cmd) {
+                case BYE:
+                    return false;
+                case LIST:
+                    ui.showList(tasks.all());
+                    break;
+                case MARK: {
+                    if (isSingleIndex(p.a)) {
+                        ui.showMarked(setDone(requireValidIndex(p.a, tasks.size()), true, true));
+                    } else {
+                        ui.showMessage(markAll(p.a, true).split("\n"));
                     }
-                    case UNMARK: {
-                        int idx = requireValidIndex(p.a, tasks.size());
-                        tasks.get(idx).markAsNotDone();
-                        ui.showUnmarked(tasks.get(idx));
-                        trySave();
-                        break;
+                    break;
+                }
+                case UNMARK: {
+                    if (isSingleIndex(p.a)) {
+                        ui.showUnmarked(setDone(requireValidIndex(p.a, tasks.size()), false, true));
+                    } else {
+                        ui.showMessage(markAll(p.a, false).split("\n"));
                     }
-                    case DELETE: {
-                        int idx = requireValidIndex(p.a, tasks.size());
-                        Task removed = tasks.remove(idx);
+                    break;
+                }
+                case DELETE: {
+                    if (isSingleIndex(p.a)) {
+                        Task removed = takeOut(requireValidIndex(p.a, tasks.size()), true);
                         ui.showDeleted(removed, tasks.size());
-                        trySave();
-                        break;
+                    } else {
+                        ui.showMessage(deleteAll(p.a).split("\n"));
                     }
-                    case TODO: {
-                        Task t = new Todo(p.a);
-                        tasks.add(t);
-                        ui.showAdded(t, tasks.size());
-                        trySave();
-                        break;
-                    }
-                    case DEADLINE: {
-                        Task t = new Deadline(p.a, p.b);
-                        tasks.add(t);
-                        ui.showAdded(t, tasks.size());
-                        trySave();
-                        break;
-                    }
-                    case EVENT: {
-                        Task t = new Event(p.a, p.b, p.c);
-                        tasks.add(t);
-                        ui.showAdded(t, tasks.size());
-                        trySave();
-                        break;
-                    }
-                    case ON: {
-                        System.out.println(tasksOnDateAsText(p.a));
-                        break;
-                    }
-                    case FIND: {
-                        ui.showFound(tasks.find(p.a), p.a);
-                        break;
-                    }
-                    case SORT: {
-                        String mode = (p.a == null) ? "" : p.a;
-                        ui.showList(sortTasks(mode));
-                        break;
-                    }
-                    default:
+                    break;
                 }
-            } catch (DukeException e) {
-                ui.showError(e.getMessage());
+                case TODO: {
+                    Task t = new Todo(p.a);
+                    ui.showAdded(t, putBack(tasks.size() + 1, t, true));
+                    break;
+                }
+                case DEADLINE: {
+                    Task t = new Deadline(p.a, p.b);
+                    ui.showAdded(t, putBack(tasks.size() + 1, t, true));
+                    break;
+                }
+                case EVENT: {
+                    Task t = new Event(p.a, p.b, p.c);
+                    ui.showAdded(t, putBack(tasks.size() + 1, t, true));
+                    break;
+                }
+                case UNDO: {
+                    ui.showMessage(undo().split("\n"));
+                    break;
+                }
+                case REDO: {
+                    ui.showMessage(redo().split("\n"));
+                    break;
+                }
+                case ON: {
+                    ui.showReply(tasksOnDate(p.a, p.b));
+                    break;
+                }
+                case FIND: {
+                    ui.showFound(tasks.find(p.a), p.a);
+                    break;
+                }
+                case SORT: {
+                    String mode = (p.a == null) ? "" : p.a;
+                    ui.showList(sortTasks(mode));
+                    break;
+                }
+                default:
             }
+        } catch (DukeException e) {
+            ui.showError(e.getMessage());
         }
+        return true;
     }
 }
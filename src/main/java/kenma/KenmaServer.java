@@ -0,0 +1,432 @@
+package kenma;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Headless HTTP/JSON front-end on the JDK's built-in server. Each tenant gets
+ * its own {@link Kenma} engine and data file ({@code <dataDir>/<tenant>.txt}),
+ * loaded on first use and evicted when idle under a memory budget (see
+ * {@link TenantRegistry}; counters at {@code GET /stats}). Routes, all under
+ * {@code /tenants/<tenant>}:
+ *
+ * <pre>
+ * GET    /tasks                        list
+ * GET    /tasks?find=&lt;keyword&gt;         find
+ * GET    /tasks?sort=name|status|time  sort
+ * GET    /on/&lt;date&gt;[?to=&lt;date&gt;]        on
+ * POST   /tasks                        add; body is a todo/deadline/event command
+ * POST   /tasks/&lt;n&gt;/mark              mark (likewise /unmark)
+ * DELETE /tasks/&lt;n&gt;                   delete
+ * POST   /commands                     any command line, as typed in the CLI
+ * </pre>
+ *
+ * <p>
+ * Replies are {@code {"ok":true,"text":...,"tasks":[...]}}, with
+ * {@code "tasks"} only for list-type commands ({@code "text"} is then the
+ * header and each task carries the number it is shown with); long lists are
+ * streamed with chunked encoding. Errors are
+ * {@code {"ok":false,"error":...}} with a 4xx status. Requests run on a fixed
+ * pool of platform threads and may hit one engine concurrently (see
+ * {@link Kenma}).
+ * </p>
+ */
+public class KenmaServer {
+    private static final int MAX_BODY = 64 << 10;
+    /** Lists longer than this are streamed rather than sent in one piece. */
+    private static final int STREAM_AFTER = 256;
+    private static final int CHUNK_CHARS = 16 << 10;
+
+    static {
+        // The JDK server writes headers and body separately; with Nagle's
+        // algorithm on, the body then waits out the client's delayed ACK (~40 ms).
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService pool;
+    private final Path dataDir;
+    private final boolean isJournaled;
+    private final TenantRegistry tenants;
+
+    /**
+     * Binds the server with the default tenant budget: up to 10000 loaded
+     * tenants using at most half the heap.
+     *
+     * @see #KenmaServer(int, Path, boolean, int, int, long)
+     */
+    public KenmaServer(int port, Path dataDir, boolean isJournaled, int threads) throws IOException {
+        this(port, dataDir, isJournaled, threads, 10_000, Runtime.getRuntime().maxMemory() / 2);
+    }
+
+    /**
+     * Binds the server; call {@link #start()} to accept requests.
+     *
+     * @param port       port on the loopback interface; 0 picks a free one
+     * @param dataDir    directory holding one data file per tenant
+     * @param threads    request threads
+     * @param maxTenants most tenants kept loaded (see {@link TenantRegistry})
+     * @param maxBytes   most estimated heap kept by loaded tenants
+     * @throws IOException if the port cannot be bound
+     */
+    public KenmaServer(int port, Path dataDir, boolean isJournaled, int threads, int maxTenants, long maxBytes)
+            throws IOException {
+        this.dataDir = dataDir;
+        this.isJournaled = isJournaled;
+        this.tenants = new TenantRegistry(this::open, maxTenants, maxBytes);
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "kenma-http-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(pool);
+        server.createContext("/tenants/", this::handle);
+        server.createContext("/stats", this::handleStats);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /** The bound port, useful when constructed with port 0. */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /** Stops accepting requests, waits briefly for running ones and flushes every engine. */
+    public void stop() {
+        server.stop(1);
+        pool.shutdown();
+        try {
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        tenants.close();
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        try {
+            String[] seg = ex.getRequestURI().getRawPath().split("/");
+            // seg: "", "tenants", <tenant>, <route>...
+            if (seg.length < 4 || !isTenantName(seg[2])) {
+                send(ex, 404, error("Unknown path."));
+                return;
+            }
+            String input = toCommand(ex, seg);
+            if (input == null) {
+                return; // already answered
+            }
+            Reply reply = tenants.with(seg[2], engine -> engine.getReply(input));
+            String text = reply.getText();
+            if (text.startsWith("Error: ")) {
+                send(ex, 400, error(text.substring("Error: ".length())));
+            } else {
+                sendOk(ex, reply);
+            }
+        } catch (DukeException e) {
+            send(ex, 400, error(e.getMessage()));
+        } catch (RuntimeException e) {
+            System.err.println("[WARN] Request failed: " + e);
+            send(ex, 500, error("Internal error."));
+        } finally {
+            ex.close();
+        }
+    }
+
+    /** Maps a route to the CLI command it stands for, or answers the request and returns {@code null}. */
+    private String toCommand(HttpExchange ex, String[] seg) throws IOException {
+        String method = ex.getRequestMethod();
+        String route = seg[3];
+        Map<String, String> query = query(ex.getRequestURI().getRawQuery());
+        switch (route) {
+            case "tasks": {
+                if (seg.length == 4 && method.equals("GET")) {
+                    if (query.containsKey("find")) {
+                        return "find " + query.get("find");
+                    }
+                    if (query.containsKey("sort")) {
+                        return "sort by " + query.get("sort");
+                    }
+                    return "list";
+                }
+                if (seg.length == 4 && method.equals("POST")) {
+                    String body = body(ex);
+                    if (body == null) {
+                        return null;
+                    }
+                    Parser.Command cmd = Parser.parse(body).cmd;
+                    if (cmd != Parser.Command.TODO && cmd != Parser.Command.DEADLINE
+                            && cmd != Parser.Command.EVENT) {
+                        send(ex, 400, error("Body must be a todo, deadline or event command."));
+                        return null;
+                    }
+                    return body;
+                }
+                if (seg.length == 5 && method.equals("DELETE")) {
+                    return "delete " + seg[4];
+                }
+                if (seg.length == 6 && method.equals("POST")
+                        && (seg[5].equals("mark") || seg[5].equals("unmark"))) {
+                    return seg[5] + " " + seg[4];
+                }
+                break;
+            }
+            case "on": {
+                if (seg.length == 5 && method.equals("GET")) {
+                    String to = query.get("to");
+                    return "on " + seg[4] + (to == null ? "" : " " + to);
+                }
+                break;
+            }
+            case "commands": {
+                if (seg.length == 4 && method.equals("POST")) {
+                    return body(ex);
+                }
+                break;
+            }
+            default: {
+                break;
+            }
+        }
+        send(ex, 404, error("Unknown path."));
+        return null;
+    }
+
+    /** {@code GET /stats}: loaded tenants, their estimated bytes and the registry's counters. */
+    private void handleStats(HttpExchange ex) throws IOException {
+        try {
+            String json = "{\"tenants\":" + tenants.size() + ",\"bytes\":" + tenants.bytes()
+                    + ",\"hits\":" + tenants.hits() + ",\"misses\":" + tenants.misses()
+                    + ",\"evictions\":" + tenants.evictions() + "}";
+            send(ex, 200, json);
+        } finally {
+            ex.close();
+        }
+    }
+
+    private Kenma open(String tenant) {
+        return new Kenma(new Storage(dataDir.resolve(tenant + ".txt").toString(), isJournaled));
+    }
+
+    /** Letters, digits, '-' and '_' only, so a tenant always maps to a file inside the data directory. */
+    private static boolean isTenantName(String s) {
+        if (s.isEmpty() || s.length() > 64) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            boolean isAllowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                    || (c >= '0' && c <= '9') || c == '-' || c == '_';
+            if (!isAllowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Reads a UTF-8 request body, or answers 400/413 and returns {@code null}. */
+    private static String body(HttpExchange ex) throws IOException {
+        byte[] bytes;
+        try (InputStream in = ex.getRequestBody()) {
+            bytes = in.readNBytes(MAX_BODY + 1);
+        }
+        if (bytes.length > MAX_BODY) {
+            send(ex, 413, error("Request body too large."));
+            return null;
+        }
+        String body = new String(bytes, StandardCharsets.UTF_8).trim();
+        if (body.isEmpty()) {
+            send(ex, 400, error("Request body must hold a command."));
+            return null;
+        }
+        return body;
+    }
+
+    private static Map<String, String> query(String raw) {
+        Map<String, String> out = new HashMap<>();
+        if (raw == null || raw.isEmpty()) {
+            return out;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            out.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return out;
+    }
+
+    private static void send(HttpExchange ex, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Answers with {@code reply}. Large lists are streamed in chunks as their
+     * rows are rendered, so neither the whole JSON nor the whole result text
+     * is ever held at once.
+     */
+    private static void sendOk(HttpExchange ex, Reply reply) throws IOException {
+        if (!reply.hasTasks() || reply.getTasks().size() <= STREAM_AFTER) {
+            send(ex, 200, ok(reply));
+            return;
+        }
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(200, 0); // chunked
+        try (Writer out = new OutputStreamWriter(ex.getResponseBody(), StandardCharsets.UTF_8)) {
+            StringBuilder sb = new StringBuilder(CHUNK_CHARS + 512);
+            sb.append("{\"ok\":true,\"text\":");
+            quote(sb, reply.getText());
+            sb.append(",\"tasks\":[");
+            List<Task> tasks = reply.getTasks();
+            for (int i = 0; i < tasks.size(); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                task(sb, reply, i);
+                if (sb.length() >= CHUNK_CHARS) {
+                    out.append(sb);
+                    sb.setLength(0);
+                }
+            }
+            out.append(sb.append("]}"));
+        }
+    }
+
+    private static String ok(Reply reply) {
+        StringBuilder sb = new StringBuilder(64);
+        sb.append("{\"ok\":true,\"text\":");
+        quote(sb, reply.getText());
+        if (reply.hasTasks()) {
+            List<Task> tasks = reply.getTasks();
+            sb.ensureCapacity(sb.length() + tasks.size() * 96);
+            sb.append(",\"tasks\":[");
+            for (int i = 0; i < tasks.size(); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                task(sb, reply, i);
+            }
+            sb.append(']');
+        }
+        return sb.append('}').toString();
+    }
+
+    /** Appends the {@code i}-th task of a list reply as a JSON object. */
+    private static void task(StringBuilder sb, Reply reply, int i) {
+        Task t = reply.getTasks().get(i);
+        sb.append("{\"number\":").append(reply.numberAt(i))
+                .append(",\"type\":\"").append(t.getType()).append("\",\"done\":").append(t.isDone())
+                .append(",\"description\":");
+        quote(sb, t.getDescription());
+        sb.append(",\"text\":");
+        quote(sb, t.toString());
+        sb.append('}');
+    }
+
+    private static String error(String message) {
+        StringBuilder sb = new StringBuilder("{\"ok\":false,\"error\":");
+        quote(sb, message);
+        return sb.append('}').toString();
+    }
+
+    /** Appends {@code s} as a JSON string literal. */
+    private static void quote(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': {
+                    sb.append("\\\"");
+                    break;
+                }
+                case '\\': {
+                    sb.append("\\\\");
+                    break;
+                }
+                case '\n': {
+                    sb.append("\\n");
+                    break;
+                }
+                case '\r': {
+                    sb.append("\\r");
+                    break;
+                }
+                case '\t': {
+                    sb.append("\\t");
+                    break;
+                }
+                default: {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                    break;
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Usage: {@code [--port <n>] [--threads <n>] [--max-tenants <n>] [--max-mb <n>]
+     * [--journal] [dataDir]}. Serves on the loopback interface until the process
+     * is stopped.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = 8765;
+        int threads = Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+        int maxTenants = 10_000;
+        long maxBytes = Runtime.getRuntime().maxMemory() / 2;
+        boolean isJournaled = false;
+        String dir = "data/tenants";
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--port") && i + 1 < args.length) {
+                port = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--max-tenants") && i + 1 < args.length) {
+                maxTenants = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--max-mb") && i + 1 < args.length) {
+                maxBytes = Long.parseLong(args[++i]) << 20;
+            } else if (args[i].equals("--journal")) {
+                isJournaled = true;
+            } else {
+                dir = args[i];
+            }
+        }
+        KenmaServer server = new KenmaServer(port, Path.of(dir), isJournaled, threads, maxTenants, maxBytes);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "kenma-http-stop"));
+        server.start();
+        System.out.println("Kenma serving http://localhost:" + server.getPort() + "/tenants/<tenant>/tasks");
+    }
+}
@@ -0,0 +1,97 @@
+package kenma;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trigram index over task descriptions, answering the case-insensitive
+ * substring queries of {@link TaskList#find(String)}.
+ *
+ * <p>
+ * Each trigram of a lower-cased description maps to the ids, in the order
+ * added, of the tasks containing it, so a query only verifies the tasks in
+ * the shortest posting list among its own trigrams. Verifying also discards
+ * postings of a removed task whose id was since given to another. The index only grows:
+ * the list's writer appends while readers query it without locking, each
+ * against its own snapshot, whose sorted ids turn a posting back into a list
+ * position and skip tasks removed since. A removal is only counted; the list
+ * drops the index once removed tasks outnumber live ones, and the next query
+ * rebuilds it. Needles shorter than three characters match most of the list
+ * anyway and use a scan instead.
+ * </p>
+ */
+final class KeywordIndex {
+    static final int GRAM = 3;
+
+    private final ConcurrentHashMap<Long, IdList> postings = new ConcurrentHashMap<>();
+    /** Removed tasks still in the postings; only the writer touches this. */
+    private int dead;
+
+    /** Indexes the first {@code size} tasks, whose ids are {@code ids}. */
+    KeywordIndex(Task[] items, long[] ids, int size) {
+        for (int i = 0; i < size; i++) {
+            add(items[i], ids[i]);
+        }
+    }
+
+    /** Indexes a task added to the list under {@code id}. */
+    void add(Task t, long id) {
+        String lower = t.getLowerDescription();
+        for (int i = 0; i + GRAM <= lower.length(); i++) {
+            postings.computeIfAbsent(gram(lower, i), k -> new IdList()).add(id);
+        }
+    }
+
+    /**
+     * Counts a removal.
+     *
+     * @param live tasks left in the list
+     * @return whether the index is still worth keeping
+     */
+    boolean remove(int live) {
+        dead++;
+        return dead <= 1024 || dead <= live;
+    }
+
+    /**
+     * 0-based positions, ascending, of the tasks among the first {@code size}
+     * of a snapshot whose lower-cased description contains {@code needle},
+     * which is at least {@link #GRAM} characters long.
+     */
+    int[] find(String needle, Task[] items, long[] ids, int size) {
+        IdList shortest = null;
+        for (int i = 0; i + GRAM <= needle.length(); i++) {
+            IdList p = postings.get(gram(needle, i));
+            if (p == null) {
+                return new int[0];
+            }
+            if (shortest == null || p.size() < shortest.size()) {
+                shortest = p;
+            }
+        }
+        IntList hits = new IntList();
+        shortest.forEach(id -> {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0 && items[pos].getLowerDescription().contains(needle)) {
+                hits.add(pos);
+            }
+        });
+        // a task appears once per occurrence of the gram in its description
+        return hits.toSortedDistinctArray();
+    }
+
+    /** {@link #find} by a scan, for needles shorter than {@link #GRAM}. */
+    static int[] scan(String needle, Task[] items, int size) {
+        IntList hits = new IntList();
+        for (int i = 0; i < size; i++) {
+            if (items[i].getLowerDescription().contains(needle)) {
+                hits.add(i);
+            }
+        }
+        return hits.toArray();
+    }
+
+    private static Long gram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+}
@@ -1,5 +1,11 @@
 package kenma;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -11,13 +17,27 @@ import javafx.stage.Stage;
  */
 public class Main extends Application {
 
+    /** Coalescing window for background saves; override with -Dkenma.saveWindowMs=... */
+    private static final Duration SAVE_WINDOW = Duration.ofMillis(Long.getLong("kenma.saveWindowMs", 300));
+
     /** Single engine instance reused for all user inputs (efficient). */
     private Kenma engine;
 
+    /**
+     * Runs every command off the FX thread. A single thread keeps commands in
+     * submission order and means the engine is never used concurrently.
+     */
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "kenma-engine");
+        t.setDaemon(true);
+        return t;
+    });
+
     @Override
     public void start(Stage stage) throws Exception {
         // Init core
         engine = new Kenma("data/kenma.txt");
+        engine.enableWriteBehind(SAVE_WINDOW); // saves never block the FX thread
 
         // Load UI
         FXMLLoader fxml = new FXMLLoader(Main.class.getResource("/view/MainWindow.fxml"));
@@ -25,7 +45,7 @@ public class Main extends Application {
         MainWindow controller = fxml.getController();
 
         // Wire controller
-        controller.setResponder(engine::getResponse);
+        controller.setResponder(input -> CompletableFuture.supplyAsync(() -> engine.getReply(input), worker));
         controller.setTitle("Kenma"); // header label text
         controller.showGreeting(engine.getGreeting()); // initial bot message
 
@@ -38,4 +58,20 @@ public class Main extends Application {
         stage.setScene(scene);
         stage.show();
     }
+
+    /** Called on window close / Platform exit: finish queued commands, then flush pending saves. */
+    @Override
+    public void stop() throws InterruptedException {
+        if (engine != null) {
+            worker.submit(() -> {
+                try {
+                    engine.close();
+                } catch (DukeException e) {
+                    System.err.println("[WARN] " + e.getMessage());
+                }
+            });
+        }
+        worker.shutdown();
+        worker.awaitTermination(10, TimeUnit.SECONDS);
+    }
 }
@@ -1,7 +1,10 @@
 package kenma;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Function;
 
+import javafx.application.Platform;
 import javafx.collections.ListChangeListener;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
@@ -12,12 +15,14 @@ import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 
 public class MainWindow {
+    /** Oldest messages beyond this many are dropped from the window. */
+    private static final int MAX_HISTORY = Math.max(2, Integer.getInteger("kenma.maxHistory", 500));
 
     @FXML
     private Label titleLabel;
 
     @FXML
-    private ListView<DialogBox> dialogContainer;
+    private ListView<ChatMessage> dialogContainer;
 
     @FXML
     private TextField userInput;
@@ -25,7 +30,7 @@ public class MainWindow {
     @FXML
     private Button sendButton;
 
-    private Function<String, String> responder;
+    private Function<String, CompletableFuture<Reply>> responder;
 
     private final Image userImage = mustLoad("/images/User.png");
     private final Image botImage = mustLoad("/images/kenma.png");
@@ -49,7 +54,12 @@ public class MainWindow {
         }
     }
 
-    public void setResponder(Function<String, String> responder) {
+    /**
+     * Sets the engine behind the window. The responder must not block: it
+     * should run the command elsewhere (see {@link Main}) and complete the
+     * future with the reply. Replies are shown in submission order.
+     */
+    public void setResponder(Function<String, CompletableFuture<Reply>> responder) {
         this.responder = responder;
     }
 
@@ -71,7 +81,7 @@ public class MainWindow {
     }
 
     public void showGreeting(String text) {
-        dialogContainer.getItems().add(DialogBox.getDukeDialog(text, botImage));
+        add(ChatMessage.bot(text));
         userInput.requestFocus();
     }
 
@@ -79,21 +89,35 @@ public class MainWindow {
     private void initialize() {
         userInput.setOnAction(e -> handleUserInput());
 
-        dialogContainer.setCellFactory(lv -> new ListCell<DialogBox>() {
+        // One DialogBox per visible cell, re-pointed at each message it shows.
+        dialogContainer.setCellFactory(lv -> new ListCell<ChatMessage>() {
+            private final DialogBox box = new DialogBox();
+
             @Override
-            protected void updateItem(DialogBox item, boolean empty) {
+            protected void updateItem(ChatMessage item, boolean empty) {
                 super.updateItem(item, empty);
                 setText(null);
-                setGraphic((empty || item == null) ? null : item);
+                if (empty || item == null) {
+                    setGraphic(null);
+                    return;
+                }
+                box.show(item, item.getKind() == ChatMessage.Kind.USER ? userImage : botImage);
+                setGraphic(box);
             }
         });
         dialogContainer.setPlaceholder(new Label(""));
 
-        dialogContainer.getItems().addListener((ListChangeListener<DialogBox>) c -> {
+        dialogContainer.getItems().addListener((ListChangeListener<ChatMessage>) c -> {
             dialogContainer.scrollTo(dialogContainer.getItems().size() - 1);
         });
     }
 
+    /**
+     * Sends the input to the responder and returns at once: a pending bubble
+     * holds the reply's place in the conversation and is swapped for the real
+     * reply when it arrives, so the window stays responsive during slow
+     * commands.
+     */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
@@ -101,32 +125,76 @@ public class MainWindow {
             return;
         }
 
-        dialogContainer.getItems().add(DialogBox.getUserDialog(input, userImage));
+        add(ChatMessage.user(input));
+        ChatMessage pending = ChatMessage.pending();
+        add(pending);
+        userInput.clear();
 
+        CompletableFuture<Reply> future;
         try {
-            String reply = (responder == null) ? "(engine not wired)" : responder.apply(input);
-            // Engine now prefixes "Error: " for user-friendly errors; still guard here.
-            if (looksLikeError(reply)) {
-                dialogContainer.getItems().add(DialogBox.getErrorDialog(reply, botImage));
-            } else {
-                dialogContainer.getItems().add(DialogBox.getDukeDialog(reply, botImage));
+            future = (responder == null)
+                    ? CompletableFuture.completedFuture(Reply.text("(engine not wired)"))
+                    : responder.apply(input);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((response, error) -> Platform.runLater(() -> {
+            replace(pending, (error == null) ? toMessage(response) : toErrorMessage(error));
+            if ("bye".equalsIgnoreCase(input.trim())) {
+                var scene = sendButton.getScene();
+                if (scene != null && scene.getWindow() != null) {
+                    scene.getWindow().hide();
+                }
             }
-        } catch (DukeException de) {
-            dialogContainer.getItems().add(DialogBox.getErrorDialog("Error: " + de.getMessage(), botImage));
-        } catch (Exception e) {
-            String msg = (e.getMessage() == null || e.getMessage().isBlank())
-                    ? "Unknown error."
-                    : e.getMessage();
-            dialogContainer.getItems().add(DialogBox.getErrorDialog("Error: " + msg, botImage));
-        } finally {
-            userInput.clear();
+        }));
+    }
+
+    private ChatMessage toMessage(Reply response) {
+        String reply = response.getText();
+        if (response.hasTasks()) {
+            // list/find/sort/on: rows streamed in as they are scrolled to
+            return ChatMessage.results(response);
+        }
+        // Engine now prefixes "Error: " for user-friendly errors; still guard here.
+        if (looksLikeError(reply)) {
+            return ChatMessage.error(reply);
+        }
+        return ChatMessage.bot(reply);
+    }
+
+    private ChatMessage toErrorMessage(Throwable error) {
+        Throwable e = (error instanceof CompletionException && error.getCause() != null)
+                ? error.getCause()
+                : error;
+        if (e instanceof DukeException) {
+            return ChatMessage.error("Error: " + e.getMessage());
         }
+        String msg = (e.getMessage() == null || e.getMessage().isBlank())
+                ? "Unknown error."
+                : e.getMessage();
+        return ChatMessage.error("Error: " + msg);
+    }
 
-        if ("bye".equalsIgnoreCase(input.trim())) {
-            var scene = sendButton.getScene();
-            if (scene != null && scene.getWindow() != null) {
-                scene.getWindow().hide();
-            }
+    /** Appends a message, dropping the oldest ones past {@link #MAX_HISTORY}. */
+    private void add(ChatMessage message) {
+        var items = dialogContainer.getItems();
+        items.add(message);
+        if (items.size() > MAX_HISTORY) {
+            items.remove(0, items.size() - MAX_HISTORY);
+        }
+    }
+
+    /**
+     * Swaps a pending bubble for its reply, in place. If the pending bubble
+     * has already been evicted, the reply is appended instead.
+     */
+    private void replace(ChatMessage pending, ChatMessage reply) {
+        var items = dialogContainer.getItems();
+        int at = items.lastIndexOf(pending);
+        if (at >= 0) {
+            items.set(at, reply);
+        } else {
+            add(reply);
         }
     }
 
@@ -2,9 +2,8 @@ package kenma;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.temporal.Temporal;
 import java.util.Locale;
-import java.util.regex.Pattern;
 
 /**
  * Parses a user input line into a {@link Parsed} command+arguments tuple.
@@ -12,6 +11,10 @@ import java.util.regex.Pattern;
  * date/time validation.
  */
 public class Parser {
+    /** Bulk selector of {@code mark}, {@code unmark} and {@code delete}: every done task. */
+    public static final String WHERE_DONE = "where done";
+    /** Bulk selector of {@code mark}, {@code unmark} and {@code delete}: every task not done. */
+    public static final String WHERE_NOT_DONE = "where not done";
 
     // ----- Public API -----
     public static Parsed parse(String input) throws DukeException {
@@ -25,128 +28,185 @@ public class Parser {
             throw new DukeException("Empty command.");
         }
 
-        String lower = s.toLowerCase(Locale.ROOT);
-
-        // bye
-        if (lower.equals("bye")) {
-            return new Parsed(Command.BYE);
-        }
-
-        // list
-        if (lower.equals("list")) {
-            return new Parsed(Command.LIST);
-        }
-
-        // mark <index>
-        if (lower.startsWith("mark ")) {
-            String arg = s.substring(5).trim();
-            ensureNonEmpty(arg, "Expected an index: mark <index> (use 'list' to see indexes).");
-            ensureInteger(arg, "Index must be a positive integer: mark <index>.");
-            return new Parsed(Command.MARK, arg);
-        }
-
-        // unmark <index>
-        if (lower.startsWith("unmark ")) {
-            String arg = s.substring(7).trim();
-            ensureNonEmpty(arg, "Expected an index: unmark <index>.");
-            ensureInteger(arg, "Index must be a positive integer: unmark <index>.");
-            return new Parsed(Command.UNMARK, arg);
+        // Dispatch on the first letter, then match keywords case-insensitively in place
+        switch (fold(s.charAt(0))) {
+            case 'b': {
+                if (s.length() == 3 && startsWith(s, "bye")) {
+                    return new Parsed(Command.BYE);
+                }
+                break;
+            }
+            case 'l': {
+                if (s.length() == 4 && startsWith(s, "list")) {
+                    return new Parsed(Command.LIST);
+                }
+                break;
+            }
+            case 'm': {
+                if (startsWith(s, "mark ")) {
+                    return parseIndex(Command.MARK, s.substring(5).trim(),
+                            "Expected an index: mark <index> (use 'list' to see indexes).",
+                            "Index must be a positive integer: mark <index>.");
+                }
+                break;
+            }
+            case 'u': {
+                if (s.length() == 4 && startsWith(s, "undo")) {
+                    return new Parsed(Command.UNDO);
+                }
+                if (startsWith(s, "unmark ")) {
+                    return parseIndex(Command.UNMARK, s.substring(7).trim(),
+                            "Expected an index: unmark <index>.",
+                            "Index must be a positive integer: unmark <index>.");
+                }
+                break;
+            }
+            case 'd': {
+                if (startsWith(s, "delete ")) {
+                    return parseIndex(Command.DELETE, s.substring(7).trim(),
+                            "Expected an index: delete <index>.",
+                            "Index must be a positive integer: delete <index>.");
+                }
+                if (startsWith(s, "deadline")) {
+                    return parseDeadline(s.substring(8).trim());
+                }
+                break;
+            }
+            case 't': {
+                // todo <desc>
+                if (startsWith(s, "todo")) {
+                    String desc = s.substring(4).trim();
+                    ensureNonEmpty(desc, "The description of a todo cannot be empty. Usage: todo <description>");
+                    return new Parsed(Command.TODO, desc);
+                }
+                break;
+            }
+            case 'e': {
+                if (startsWith(s, "event")) {
+                    return parseEvent(s.substring(5).trim());
+                }
+                break;
+            }
+            case 'o': {
+                if (startsWith(s, "on ")) {
+                    return parseOn(s.substring(3).trim());
+                }
+                break;
+            }
+            case 's': {
+                // sort [mode]; any mode is accepted here, support is decided downstream
+                if (startsWith(s, "sort")) {
+                    return new Parsed(Command.SORT, s.substring(4).trim().toLowerCase(Locale.ROOT));
+                }
+                break;
+            }
+            case 'r': {
+                if (s.length() == 4 && startsWith(s, "redo")) {
+                    return new Parsed(Command.REDO);
+                }
+                break;
+            }
+            case 'f': {
+                // find <keyword>
+                if (startsWith(s, "find")) {
+                    String kw = s.substring(4).trim();
+                    ensureNonEmpty(kw, "Please provide a keyword to find. Usage: find <keyword>");
+                    return new Parsed(Command.FIND, kw);
+                }
+                break;
+            }
+            default: {
+                break;
+            }
         }
+        throw new DukeException("I'm sorry, but I don't know what that means :-(");
+    }
 
-        // delete <index>
-        if (lower.startsWith("delete ")) {
-            String arg = s.substring(7).trim();
-            ensureNonEmpty(arg, "Expected an index: delete <index>.");
-            ensureInteger(arg, "Index must be a positive integer: delete <index>.");
-            return new Parsed(Command.DELETE, arg);
+    // mark|unmark|delete <index> | <i,j,k-l> | where [not] done
+    private static Parsed parseIndex(Command cmd, String arg, String missing, String invalid) {
+        ensureNonEmpty(arg, missing);
+        String lower = arg.toLowerCase(Locale.ROOT);
+        if (lower.equals(WHERE_DONE) || lower.equals(WHERE_NOT_DONE)) {
+            return new Parsed(cmd, lower);
         }
-
-        // todo <desc>
-        if (lower.startsWith("todo")) {
-            String desc = s.length() > 4 ? s.substring(4).trim() : "";
-            ensureNonEmpty(desc, "The description of a todo cannot be empty. Usage: todo <description>");
-            return new Parsed(Command.TODO, desc);
+        if ((arg.indexOf(',') >= 0 || hasRange(arg)) && Selection.isSelection(arg)) {
+            return new Parsed(cmd, arg);
         }
+        ensureInteger(arg, invalid);
+        return new Parsed(cmd, arg);
+    }
 
-        // deadline <desc> /by <when>
-        if (lower.startsWith("deadline")) {
-            String body = s.substring(8).trim();
-            // require exactly one /by (case-insensitive)
-            ensureContainsOnce(body, "/by", "Missing '/by'. Usage: deadline <desc> /by <yyyy-MM-dd HHmm>");
-            String[] split = BY_SPLIT.split(body, 2); // splits on \s+/by\s+ case-insensitive
-            if (split.length < 2) {
-                throw new DukeException("Invalid deadline format. Usage: deadline <desc> /by <yyyy-MM-dd HHmm>");
-            }
-            String desc = split[0].trim();
-            String by = split[1].trim();
-            ensureNonEmpty(desc, "Deadline description cannot be empty.");
-            ensureNonEmpty(by, "Deadline time cannot be empty. Use: /by <yyyy-MM-dd HHmm>");
-
-            // Validate time (keep original string for downstream)
-            validateDateTime(by);
-            return new Parsed(Command.DEADLINE, desc, by);
+    // deadline <desc> /by <when>
+    private static Parsed parseDeadline(String body) {
+        // require exactly one /by (case-insensitive)
+        ensureContainsOnce(body, "/by", "Missing '/by'. Usage: deadline <desc> /by <yyyy-MM-dd HHmm>");
+        int at = indexOfFlag(body, " /by ", 0);
+        if (at < 0) {
+            throw new DukeException("Invalid deadline format. Usage: deadline <desc> /by <yyyy-MM-dd HHmm>");
         }
+        String desc = body.substring(0, at).trim();
+        String by = body.substring(at + 5).trim();
+        ensureNonEmpty(desc, "Deadline description cannot be empty.");
+        ensureNonEmpty(by, "Deadline time cannot be empty. Use: /by <yyyy-MM-dd HHmm>");
+
+        // Validate time (keep original string for downstream)
+        validateDateTime(by);
+        return new Parsed(Command.DEADLINE, desc, by);
+    }
 
-        // event <desc> /from <start> /to <end>
-        if (lower.startsWith("event")) {
-            String body = s.length() > 5 ? s.substring(5).trim() : "";
-            ensureContainsOnce(body, "/from", "Missing '/from'. Usage: event <desc> /from <start> /to <end>");
-            ensureContainsOnce(body, "/to", "Missing '/to'. Usage: event <desc> /from <start> /to <end>");
-
-            String[] left = FROM_SPLIT.split(body, 2); // <desc> | <start> /to <end>
-            if (left.length < 2) {
-                throw new DukeException("Invalid event format. Use: event <desc> /from <start> /to <end>");
-            }
-            String desc = left[0].trim();
-            ensureNonEmpty(desc, "Event description cannot be empty.");
-
-            String[] right = TO_SPLIT.split(left[1], 2); // <start> | <end>
-            if (right.length < 2) {
-                throw new DukeException("Invalid event time format. Use: /from <start> /to <end>");
-            }
-            String start = right[0].trim();
-            String end = right[1].trim();
-            ensureNonEmpty(start, "Event start time cannot be empty.");
-            ensureNonEmpty(end, "Event end time cannot be empty.");
+    // event <desc> /from <start> /to <end>
+    private static Parsed parseEvent(String body) {
+        ensureContainsOnce(body, "/from", "Missing '/from'. Usage: event <desc> /from <start> /to <end>");
+        ensureContainsOnce(body, "/to", "Missing '/to'. Usage: event <desc> /from <start> /to <end>");
 
-            // Validate times (keep originals)
-            LocalDateTime st = validateDateTime(start);
-            LocalDateTime ed = validateDateTime(end);
-            if (!ed.isAfter(st)) {
-                throw new DukeException("End time must be after start time.");
-            }
-            return new Parsed(Command.EVENT, desc, start, end);
+        int from = indexOfFlag(body, " /from ", 0); // <desc> | <start> /to <end>
+        if (from < 0) {
+            throw new DukeException("Invalid event format. Use: event <desc> /from <start> /to <end>");
         }
+        String desc = body.substring(0, from).trim();
+        ensureNonEmpty(desc, "Event description cannot be empty.");
 
-        // on <date> (e.g., on 2025-09-14 or on 2025-09-14 1300)
-        if (lower.startsWith("on ")) {
-            String dateStr = s.substring(3).trim();
-            ensureNonEmpty(dateStr, "Usage: on <yyyy-MM-dd> or on <yyyy-MM-dd HHmm>");
-            // Validate (either full date or date-time)
-            validateDateOrDateTime(dateStr);
-            return new Parsed(Command.ON, dateStr);
+        int to = indexOfFlag(body, " /to ", from + 7); // <start> | <end>
+        if (to < 0) {
+            throw new DukeException("Invalid event time format. Use: /from <start> /to <end>");
         }
-
-        // sort [mode]
-        if (lower.startsWith("sort")) {
-            String mode = s.length() > 4 ? s.substring(4).trim().toLowerCase(Locale.ROOT) : "";
-            // We accept any mode string here; actual support is decided downstream.
-            return new Parsed(Command.SORT, mode);
+        String start = body.substring(from + 7, to).trim();
+        String end = body.substring(to + 5).trim();
+        ensureNonEmpty(start, "Event start time cannot be empty.");
+        ensureNonEmpty(end, "Event end time cannot be empty.");
+
+        // Validate times (keep originals)
+        LocalDateTime st = validateDateTime(start);
+        LocalDateTime ed = validateDateTime(end);
+        if (!ed.isAfter(st)) {
+            throw new DukeException("End time must be after start time.");
         }
+        return new Parsed(Command.EVENT, desc, start, end);
+    }
 
-        // find <keyword>
-        if (lower.startsWith("find")) {
-            String kw = s.length() > 4 ? s.substring(4).trim() : "";
-            ensureNonEmpty(kw, "Please provide a keyword to find. Usage: find <keyword>");
-            return new Parsed(Command.FIND, kw);
+    // on <date> (e.g., on 2025-09-14 or on 2025-09-14 1300)
+    // on <from> <to> (e.g., on 2025-09-14 2025-09-20)
+    private static Parsed parseOn(String dateStr) {
+        ensureNonEmpty(dateStr, "Usage: on <yyyy-MM-dd>, on <yyyy-MM-dd HHmm> or on <from> <to>");
+        int space = dateStr.indexOf(' ');
+        if (space >= 0 && dateStr.indexOf(' ', space + 1) < 0 && dateStr.indexOf('-', space) >= 0) {
+            String first = dateStr.substring(0, space);
+            String second = dateStr.substring(space + 1);
+            LocalDate from = validateDate(first);
+            LocalDate to = validateDate(second);
+            if (to.isBefore(from)) {
+                throw new DukeException("End date must not be before start date.");
+            }
+            return new Parsed(Command.ON, first, second);
         }
-
-        throw new DukeException("I'm sorry, but I don't know what that means :-(");
+        // Validate (either full date or date-time)
+        validateDateTime(dateStr);
+        return new Parsed(Command.ON, dateStr);
     }
 
     // ----- Commands & Parsed tuple -----
     public enum Command {
-        BYE, LIST, MARK, UNMARK, DELETE, TODO, DEADLINE, EVENT, ON, FIND, SORT
+        BYE, LIST, MARK, UNMARK, DELETE, TODO, DEADLINE, EVENT, ON, FIND, SORT, UNDO, REDO
     }
 
     public static class Parsed {
@@ -166,9 +226,80 @@ public class Parser {
 
     // ----- Helpers -----
 
-    /** Trim + collapse internal whitespace to single spaces. */
+    /**
+     * Trim + collapse internal whitespace ({@code [ \\t\\n\\x0B\\f\\r]}) to single
+     * spaces. Returns the trimmed string itself when there is nothing to collapse.
+     */
     private static String normalize(String s) {
-        return s == null ? "" : s.trim().replaceAll("\\s+", " ");
+        if (s == null) {
+            return "";
+        }
+        String t = s.trim();
+        int n = t.length();
+        int i = 0;
+        while (i < n && !(isSpace(t.charAt(i)) && (t.charAt(i) != ' ' || isSpace(t.charAt(i + 1))))) {
+            i++;
+        }
+        if (i == n) {
+            return t;
+        }
+        StringBuilder sb = new StringBuilder(n).append(t, 0, i);
+        while (i < n) {
+            char c = t.charAt(i++);
+            if (isSpace(c)) {
+                sb.append(' ');
+                while (i < n && isSpace(t.charAt(i))) {
+                    i++;
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Whitespace as in the regex class {@code \\s}. */
+    private static boolean isSpace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    /** Case-insensitive prefix test without lower-casing the line. */
+    private static boolean startsWith(String s, String keyword) {
+        return matchesAt(s, 0, keyword);
+    }
+
+    /** First index of {@code flag} at or after {@code from}, ignoring case; -1 if absent. */
+    private static int indexOfFlag(String s, String flag, int from) {
+        for (int i = from; i + flag.length() <= s.length(); i++) {
+            if (matchesAt(s, i, flag)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Whether {@code s} holds the lower-case ASCII {@code word} at {@code at}, ignoring case. */
+    private static boolean matchesAt(String s, int at, String word) {
+        if (at + word.length() > s.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (fold(s.charAt(at + i)) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lower-cases the characters that {@code toLowerCase(Locale.ROOT)} maps onto
+     * ASCII letters (A-Z and the Kelvin sign); everything else is unchanged.
+     */
+    private static char fold(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return (char) (c + ('a' - 'A'));
+        }
+        return c == '\u212A' ? 'k' : c;
     }
 
     /** Ensure string is not empty; otherwise throw with message. */
@@ -178,6 +309,25 @@ public class Parser {
         }
     }
 
+    /** Whether a '-' in {@code s} sits between two digits (spaces allowed), as in {@code 3-500}. */
+    private static boolean hasRange(String s) {
+        for (int i = s.indexOf('-'); i >= 0; i = s.indexOf('-', i + 1)) {
+            int before = i - 1;
+            while (before >= 0 && s.charAt(before) == ' ') {
+                before--;
+            }
+            int after = i + 1;
+            while (after < s.length() && s.charAt(after) == ' ') {
+                after++;
+            }
+            if (before >= 0 && after < s.length()
+                    && Character.isDigit(s.charAt(before)) && Character.isDigit(s.charAt(after))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /** Ensure arg is a positive integer. */
     private static void ensureInteger(String s, String message) {
         for (int i = 0; i < s.length(); i++) {
@@ -192,13 +342,11 @@ public class Parser {
 
     /** Ensure a flag like "/by" appears exactly once (case-insensitive). */
     private static void ensureContainsOnce(String haystack, String token, String missingMessage) {
-        String h = haystack.toLowerCase(Locale.ROOT);
-        String t = token.toLowerCase(Locale.ROOT);
         int count = 0;
         int idx = 0;
-        while ((idx = h.indexOf(t, idx)) >= 0) {
+        while ((idx = indexOfFlag(haystack, token, idx)) >= 0) {
             count++;
-            idx += t.length();
+            idx += token.length();
         }
         if (count == 0) {
             throw new DukeException(missingMessage);
@@ -208,49 +356,30 @@ public class Parser {
         }
     }
 
-    // Case-insensitive splits like \s+/by\s+
-    private static final Pattern BY_SPLIT = Pattern.compile("(?i)\\s+/by\\s+");
-    private static final Pattern FROM_SPLIT = Pattern.compile("(?i)\\s+/from\\s+");
-    private static final Pattern TO_SPLIT = Pattern.compile("(?i)\\s+/to\\s+");
-
-    // Accepted date/time formats
-    private static final DateTimeFormatter[] DATE_TIME_CANDIDATES = new DateTimeFormatter[] {
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"),
-            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm")
-    };
-    private static final DateTimeFormatter DATE_ONLY = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
     /**
-     * Validate as date-time (supports a few common formats). Returns parsed
-     * LocalDateTime.
+     * Validate as date-time (yyyy-MM-dd HHmm, yyyy-MM-dd'T'HH:mm, or a date at
+     * start-of-day). Returns parsed LocalDateTime. Recognized by shape, without
+     * exceptions on the common path.
      */
     private static LocalDateTime validateDateTime(String raw) {
-        String t = normalize(raw);
-        for (DateTimeFormatter f : DATE_TIME_CANDIDATES) {
-            try {
-                return LocalDateTime.parse(t, f);
-            } catch (Exception ignore) {
-                /* try next */ }
+        String t = raw.trim();
+        Temporal when = DateParser.parse(t, true);
+        if (when instanceof LocalDateTime) {
+            return (LocalDateTime) when;
+        }
+        if (when instanceof LocalDate) {
+            return ((LocalDate) when).atStartOfDay();
         }
-        // Accept date-only by interpreting start-of-day
-        try {
-            LocalDate d = LocalDate.parse(t, DATE_ONLY);
-            return d.atStartOfDay();
-        } catch (Exception ignore) {
-            /* fallthrough */ }
         throw new DukeException("Invalid date/time: " + raw
                 + ". Try formats like: yyyy-MM-dd HHmm (e.g., 2025-09-14 1300).");
     }
 
-    /** Validate as either date-only or date-time. */
-    private static void validateDateOrDateTime(String raw) {
-        String t = normalize(raw);
-        try {
-            // Try date-only first
-            LocalDate.parse(t, DATE_ONLY);
-            return;
-        } catch (Exception ignore) {
-            /* try datetime */ }
-        validateDateTime(t); // will throw if invalid
+    /** Validate as date-only. Returns the parsed LocalDate. */
+    private static LocalDate validateDate(String raw) {
+        LocalDate date = DateParser.parseDate(raw);
+        if (date != null) {
+            return date;
+        }
+        throw new DukeException("Invalid date: " + raw + ". Use yyyy-MM-dd (e.g., 2025-09-14).");
     }
 }
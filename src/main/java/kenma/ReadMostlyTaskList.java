@@ -0,0 +1,219 @@
+package kenma;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A {@link TaskStore} held in a {@link ColumnarTaskList}, for lists of
+ * millions of tasks that are mostly read; chosen with the CLI's
+ * {@code --columnar}.
+ *
+ * <p>
+ * Tasks are materialized from the columns on access, and {@code find},
+ * {@code on} and {@code sort} scan the columns instead of keeping indexes.
+ * Reads share a lock and writes take it exclusively. Unlike
+ * {@link TaskList}, {@link #all()}, {@link #snapshot()} and query results
+ * are views over the rows, valid only until the next insert or removal, so
+ * they must be consumed before the list changes, as the console does.
+ * </p>
+ */
+final class ReadMostlyTaskList implements TaskStore {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ColumnarTaskList columns;
+    private final List<Task> view;
+
+    ReadMostlyTaskList(ColumnarTaskList columns) {
+        this.columns = columns;
+        this.view = Collections.unmodifiableList(columns);
+    }
+
+    /** A view of the rows; see the class comment. */
+    @Override
+    public List<Task> all() {
+        return view;
+    }
+
+    /** A view of the rows; see the class comment. */
+    @Override
+    public List<Task> snapshot() {
+        return view;
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Materializes the task at the 1-based index; marking it does not change the list. */
+    @Override
+    public Task get(int idx1Based) {
+        lock.readLock().lock();
+        try {
+            TaskList.ensureIndex(idx1Based, columns.size());
+            return columns.get(idx1Based - 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void add(Task t) {
+        if (t == null) {
+            throw new IllegalArgumentException("Task cannot be null.");
+        }
+        lock.writeLock().lock();
+        try {
+            if (columns.contains(t)) {
+                throw new DukeException("Duplicate task: " + t);
+            }
+            columns.add(t);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void insert(int idx1Based, Task t) {
+        if (t == null) {
+            throw new IllegalArgumentException("Task cannot be null.");
+        }
+        lock.writeLock().lock();
+        try {
+            if (idx1Based != columns.size() + 1) {
+                TaskList.ensureIndex(idx1Based, columns.size());
+            }
+            if (columns.contains(t)) {
+                throw new DukeException("Duplicate task: " + t);
+            }
+            columns.add(idx1Based - 1, t);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Task remove(int idx1Based) {
+        lock.writeLock().lock();
+        try {
+            TaskList.ensureIndex(idx1Based, columns.size());
+            return columns.remove(idx1Based - 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Task[] removeAll(int[] positions) {
+        lock.writeLock().lock();
+        try {
+            TaskList.checkPositions(positions, columns.size());
+            Task[] removed = new Task[positions.length];
+            for (int k = 0; k < positions.length; k++) {
+                removed[k] = columns.get(positions[k] - 1);
+            }
+            columns.removeRows(positions);
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void insertAll(int[] positions, Task[] tasks) {
+        lock.writeLock().lock();
+        try {
+            TaskList.checkPositions(positions, columns.size() + positions.length);
+            Task duplicate = columns.findPresent(tasks);
+            if (duplicate != null) {
+                throw new DukeException("Duplicate task: " + duplicate);
+            }
+            columns.insertRows(positions, tasks);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int[] setDoneAll(int[] positions, boolean isDone) {
+        lock.writeLock().lock();
+        try {
+            TaskList.checkPositions(positions, columns.size());
+            int[] changed = new int[positions.length];
+            int n = 0;
+            for (int pos : positions) {
+                if (columns.isDone(pos - 1) == isDone) {
+                    continue;
+                }
+                if (isDone) {
+                    columns.mark(pos);
+                } else {
+                    columns.unmark(pos);
+                }
+                changed[n++] = pos;
+            }
+            return Arrays.copyOf(changed, n);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Task mark(int idx1Based) {
+        lock.writeLock().lock();
+        try {
+            columns.mark(idx1Based);
+            return columns.get(idx1Based - 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Task unmark(int idx1Based) {
+        lock.writeLock().lock();
+        try {
+            columns.unmark(idx1Based);
+            return columns.get(idx1Based - 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Task> find(String keyword) {
+        lock.readLock().lock();
+        try {
+            return Collections.unmodifiableList(columns.find(keyword));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Hits occurringBetween(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            return new Hits(columns.occurringBetween(from, to), view);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Task> sorted(SortKey key) {
+        lock.readLock().lock();
+        try {
+            return Collections.unmodifiableList(columns.sorted(key));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package kenma;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Single-pass decoder for storage records of the form {@code T | 0 | desc},
+ * {@code D | 0 | desc | by} and {@code E | 0 | desc | from | to}.
+ *
+ * <p>
+ * Fields are sliced by index straight out of the UTF-8 bytes, so the only
+ * allocations are the strings and date values the new task keeps. Dates are
+ * recognized in place by {@link DateParser}; anything else stays raw text
+ * without throwing.
+ * Instances reuse their slice arrays and are not thread-safe.
+ * </p>
+ */
+final class RecordDecoder {
+    private static final int MAX_FIELDS = 5;
+
+    private final int[] starts = new int[MAX_FIELDS];
+    private final int[] ends = new int[MAX_FIELDS];
+
+    /**
+     * Decodes {@code len} bytes of {@code buf} starting at {@code off}.
+     *
+     * @return the task, or {@code null} if the record is blank or malformed
+     */
+    Task decode(byte[] buf, int off, int len) {
+        int n = slice(buf, off, off + len);
+        if (n < 3 || ends[0] - starts[0] != 1) {
+            return null;
+        }
+        byte type = buf[starts[0]];
+        boolean isDone = ends[1] - starts[1] == 1 && buf[starts[1]] == '1';
+        String desc = text(buf, 2);
+        if (desc.isBlank()) {
+            return null;
+        }
+        Task t;
+        try {
+            switch (type) {
+                case 'T': {
+                    t = new Todo(desc);
+                    break;
+                }
+                case 'D': {
+                    if (n < 4) {
+                        return null;
+                    }
+                    t = new Deadline(desc, text(buf, 3), DateParser.parse(buf, starts[3], ends[3]));
+                    break;
+                }
+                case 'E': {
+                    if (n < 5) {
+                        return null;
+                    }
+                    t = new Event(desc, text(buf, 3), DateParser.parse(buf, starts[3], ends[3]),
+                            text(buf, 4), DateParser.parse(buf, starts[4], ends[4]));
+                    break;
+                }
+                default: {
+                    return null;
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+        if (isDone) {
+            t.markAsDone();
+        }
+        return t;
+    }
+
+    /** Convenience for text lines (journal records, tests). */
+    Task decode(String line) {
+        byte[] b = line.getBytes(StandardCharsets.UTF_8);
+        return decode(b, 0, b.length);
+    }
+
+    /**
+     * Records trimmed field bounds in {@link #starts}/{@link #ends}; fields past
+     * {@link #MAX_FIELDS} are ignored. Returns the number of fields.
+     */
+    private int slice(byte[] buf, int from, int to) {
+        int n = 0;
+        int start = from;
+        for (int i = from; i <= to && n < MAX_FIELDS; i++) {
+            if (i == to || buf[i] == '|') {
+                int s = start;
+                int e = i;
+                while (s < e && isTrimmable(buf[s])) {
+                    s++;
+                }
+                while (e > s && isTrimmable(buf[e - 1])) {
+                    e--;
+                }
+                starts[n] = s;
+                ends[n] = e;
+                n++;
+                start = i + 1;
+            }
+        }
+        return n;
+    }
+
+    /** Same rule as {@link String#trim()}: control characters and space. */
+    private static boolean isTrimmable(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    private String text(byte[] buf, int field) {
+        return new String(buf, starts[field], ends[field] - starts[field], StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,125 @@
+package kenma;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Result of one command: plain text, or, for list-type commands
+ * ({@code list}, {@code find}, {@code sort}, {@code on}), a header plus the
+ * tasks themselves. Such results are consumed as a stream of rendered rows
+ * ({@link #rows()}), so the console, the window and the server can show the
+ * first rows at once and hold only what they have shown, instead of one
+ * string of the whole result.
+ */
+public final class Reply {
+    /** Line shown under the header of a list reply without tasks. */
+    static final String NO_TASKS = " (no tasks)";
+
+    private final String text;
+    private final List<Task> tasks;
+    /** Number shown before each task, or {@code null} for 1, 2, 3, ... */
+    private final int[] numbers;
+
+    private Reply(String text, List<Task> tasks, int[] numbers) {
+        this.text = text;
+        this.tasks = tasks;
+        this.numbers = numbers;
+    }
+
+    /** A plain text reply. */
+    public static Reply text(String text) {
+        return new Reply(text, null, null);
+    }
+
+    /**
+     * A list reply.
+     *
+     * @param header line shown above the tasks
+     * @param tasks  tasks in display order; must not change afterwards
+     */
+    public static Reply tasks(String header, List<Task> tasks) {
+        return new Reply(header, tasks, null);
+    }
+
+    /** A list reply of tasks found by {@code on}, numbered by their positions in the list. */
+    static Reply hits(String header, TaskStore.Hits hits) {
+        return new Reply(header, hits.tasks(), hits.positions());
+    }
+
+    /** The full text for a plain reply, or the header for a list reply. */
+    public String getText() {
+        return text;
+    }
+
+    /** Whether this reply carries tasks (possibly none) rather than plain text. */
+    public boolean hasTasks() {
+        return tasks != null;
+    }
+
+    /** The tasks of a list reply, or {@code null} for a plain one. */
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    /** The number shown before the {@code i}-th task (0-based) of a list reply. */
+    public int numberAt(int i) {
+        return numbers == null ? i + 1 : numbers[i];
+    }
+
+    /**
+     * Appends one numbered row, e.g. {@code " 3.[T][ ] read book"}. Every
+     * front end renders rows through here, so the console, the window and
+     * {@link #toText()} indent them alike.
+     */
+    static StringBuilder appendRow(StringBuilder sb, int number, Task t) {
+        return sb.append(' ').append(number).append('.').append(t);
+    }
+
+    /**
+     * The rows of a list reply (see {@link #appendRow}), each rendered only
+     * when it is reached; empty for a plain reply. Every call starts again
+     * from the first row.
+     */
+    public Iterator<String> rows() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return tasks != null && next < tasks.size();
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int i = next++;
+                return appendRow(new StringBuilder(48), numberAt(i), tasks.get(i)).toString();
+            }
+        };
+    }
+
+    /** Renders the whole reply as one string; prefer {@link #rows()} for large results. */
+    public String toText() {
+        if (tasks == null) {
+            return text;
+        }
+        String nl = System.lineSeparator();
+        if (tasks.isEmpty()) {
+            return text + nl + NO_TASKS;
+        }
+        StringBuilder sb = new StringBuilder(text.length() + tasks.size() * 48);
+        sb.append(text);
+        for (int i = 0; i < tasks.size(); i++) {
+            appendRow(sb.append(nl), numberAt(i), tasks.get(i));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toText();
+    }
+}
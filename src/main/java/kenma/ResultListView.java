@@ -0,0 +1,92 @@
+package kenma;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import javafx.application.Platform;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+
+/**
+ * Task results inside a chat bubble. Rows are pulled from the reply's row
+ * stream ({@link Reply#rows()}) a page at a time as the user scrolls towards
+ * the end, and the {@link ListView} only lays out the rows on screen and
+ * recycles their cells, so a result of any size costs a bounded amount of
+ * layout and rendered text until it is scrolled through. A {@link DialogBox}
+ * keeps one and points it at each result it shows.
+ */
+class ResultListView extends ListView<String> {
+    static final int PAGE_SIZE = 200;
+    private static final double ROW_HEIGHT = 24;
+    private static final int MAX_VISIBLE_ROWS = 12;
+
+    private Reply source;
+    private Iterator<String> rows;
+    private boolean isLoadPending;
+
+    ResultListView() {
+        setFixedCellSize(ROW_HEIGHT);
+        setMaxWidth(520);
+        setFocusTraversable(false);
+        getStyleClass().add("result-list");
+        setCellFactory(lv -> new ListCell<String>() {
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                    return;
+                }
+                setText(item);
+                if (getIndex() >= ResultListView.this.getItems().size() - PAGE_SIZE / 4) {
+                    requestNextPage();
+                }
+            }
+        });
+    }
+
+    /**
+     * Shows a new result, starting again from its first page. Showing the same
+     * result again keeps what is loaded.
+     *
+     * @param reply a list reply whose tasks must not change afterwards
+     */
+    void setSource(Reply reply) {
+        if (reply == source) {
+            return;
+        }
+        source = reply;
+        rows = reply.rows();
+        int visible = Math.max(1, Math.min(reply.getTasks().size(), MAX_VISIBLE_ROWS));
+        setPrefHeight(visible * ROW_HEIGHT + 2);
+        getItems().clear();
+        loadNextPage();
+        scrollTo(0);
+    }
+
+    /** Loads the next page after the current layout pass, at most once at a time. */
+    private void requestNextPage() {
+        if (isLoadPending || !rows.hasNext()) {
+            return;
+        }
+        isLoadPending = true;
+        Reply requested = source;
+        Platform.runLater(() -> {
+            isLoadPending = false;
+            if (source == requested) {
+                loadNextPage();
+            }
+        });
+    }
+
+    private void loadNextPage() {
+        String[] page = new String[PAGE_SIZE];
+        int n = 0;
+        while (n < PAGE_SIZE && rows.hasNext()) {
+            page[n++] = rows.next();
+        }
+        if (n > 0) {
+            getItems().addAll(Arrays.asList(page).subList(0, n));
+        }
+    }
+}
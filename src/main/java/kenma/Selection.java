@@ -0,0 +1,100 @@
+package kenma;
+
+import java.util.Arrays;
+
+/**
+ * Sets of 1-based list positions written as comma-separated indexes and
+ * ranges, e.g. {@code 3-500} or {@code 1,4,9-12}. Used by the bulk forms of
+ * {@code mark}, {@code unmark} and {@code delete}, and by their journal
+ * records, where a single index is just the one-element case.
+ */
+final class Selection {
+    /** Largest selection accepted, to bound the array a typo like {@code 1-99999999} would allocate. */
+    private static final int MAX_POSITIONS = 10_000_000;
+
+    private Selection() {
+    }
+
+    /** Whether {@code spec} has the shape of a selection (digits, commas and dashes only). */
+    static boolean isSelection(String spec) {
+        if (spec.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < spec.length(); i++) {
+            char c = spec.charAt(i);
+            if ((c < '0' || c > '9') && c != ',' && c != '-' && c != ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The positions {@code spec} names, ascending and without repeats.
+     *
+     * @throws DukeException if {@code spec} is malformed or names a position
+     *                       outside {@code 1..size}
+     */
+    static int[] parse(String spec, int size) {
+        IntList out = new IntList();
+        for (String part : spec.split(",", -1)) {
+            String p = part.trim();
+            int dash = p.indexOf('-');
+            int from = number(dash < 0 ? p : p.substring(0, dash), spec);
+            int to = dash < 0 ? from : number(p.substring(dash + 1), spec);
+            if (to < from) {
+                throw new DukeException("Range must go from low to high: " + p + ".");
+            }
+            if (from < 1 || to > size) {
+                throw new DukeException("Index out of range. Valid range: 1.." + size + ".");
+            }
+            if (out.size() + (long) (to - from) >= MAX_POSITIONS) {
+                throw new DukeException("Too many indexes in one command.");
+            }
+            for (int i = from; i <= to; i++) {
+                out.add(i);
+            }
+        }
+        int[] sorted = out.toSortedArray();
+        int n = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (n == 0 || sorted[i] != sorted[n - 1]) {
+                sorted[n++] = sorted[i];
+            }
+        }
+        return n == sorted.length ? sorted : Arrays.copyOf(sorted, n);
+    }
+
+    /** Writes ascending {@code positions} back in the shortest form, e.g. {@code 1,4,9-12}. */
+    static String format(int[] positions) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < positions.length;) {
+            int j = i;
+            while (j + 1 < positions.length && positions[j + 1] == positions[j] + 1) {
+                j++;
+            }
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(positions[i]);
+            if (j > i) {
+                sb.append('-').append(positions[j]);
+            }
+            i = j + 1;
+        }
+        return sb.toString();
+    }
+
+    private static int number(String s, String spec) {
+        String t = s.trim();
+        if (t.isEmpty() || t.length() > 9) {
+            throw new DukeException("Invalid index list: " + spec + ". Use e.g. 3, 1,4,9 or 3-500.");
+        }
+        for (int i = 0; i < t.length(); i++) {
+            if (t.charAt(i) < '0' || t.charAt(i) > '9') {
+                throw new DukeException("Invalid index list: " + spec + ". Use e.g. 3, 1,4,9 or 3-500.");
+            }
+        }
+        return Integer.parseInt(t);
+    }
+}
@@ -0,0 +1,234 @@
+package kenma;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Ordered indexes behind {@link TaskList#sorted(TaskStore.SortKey)}, one per
+ * sort key, so a sort is a walk of a tree that is already in order.
+ *
+ * <p>
+ * Each task gets an entry carrying its sort keys, computed once. Entries are
+ * ordered by key and then by id; ids follow list order, so equal keys keep
+ * their list order just like a stable sort. The trees are persistent treaps:
+ * a value of this class never changes, and adds, removals and status changes
+ * each return a new one in O(log n), sharing all but the copied path. A
+ * snapshot of the list can therefore carry its views and be sorted without
+ * locking.
+ * </p>
+ */
+final class SortedViews {
+    private static final Comparator<Entry> BY_NAME = Comparator
+            .comparing((Entry e) -> e.task.getDescription(), String.CASE_INSENSITIVE_ORDER)
+            .thenComparingLong(e -> e.id);
+    private static final Comparator<Entry> BY_STATUS = Comparator
+            .comparing((Entry e) -> e.isDone)
+            .thenComparingLong(e -> e.id);
+    private static final Comparator<Entry> BY_TIME = Comparator
+            .comparing((Entry e) -> e.time, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingLong(e -> e.id);
+
+    private final Node byName;
+    private final Node byStatus;
+    private final Node byTime;
+    private final int size;
+
+    private SortedViews(Node byName, Node byStatus, Node byTime, int size) {
+        this.byName = byName;
+        this.byStatus = byStatus;
+        this.byTime = byTime;
+        this.size = size;
+    }
+
+    /** Views of the first {@code size} tasks, whose ids are {@code ids}. */
+    static SortedViews of(Task[] items, long[] ids, int size) {
+        Entry[] entries = new Entry[size];
+        for (int i = 0; i < size; i++) {
+            entries[i] = new Entry(items[i], ids[i], items[i].isDone());
+        }
+        return new SortedViews(build(entries, BY_NAME), build(entries, BY_STATUS), build(entries, BY_TIME), size);
+    }
+
+    /** Views with a task added to the list under {@code id}. */
+    SortedViews add(Task t, long id) {
+        Entry e = new Entry(t, id, t.isDone());
+        return new SortedViews(insert(byName, e, BY_NAME), insert(byStatus, e, BY_STATUS),
+                insert(byTime, e, BY_TIME), size + 1);
+    }
+
+    /** Views without the task with id {@code id}, which must not have changed status since it was last filed. */
+    SortedViews remove(Task t, long id) {
+        Entry e = new Entry(t, id, t.isDone());
+        return new SortedViews(delete(byName, e, BY_NAME), delete(byStatus, e, BY_STATUS),
+                delete(byTime, e, BY_TIME), size - 1);
+    }
+
+    /** Views with the task with id {@code id} re-filed after it was (un)marked. */
+    SortedViews statusChanged(Task t, long id) {
+        Node status = delete(byStatus, new Entry(t, id, !t.isDone()), BY_STATUS);
+        status = insert(status, new Entry(t, id, t.isDone()), BY_STATUS);
+        return new SortedViews(byName, status, byTime, size);
+    }
+
+    /** All tasks ordered by {@code key}, ties in list order. */
+    List<Task> sorted(TaskStore.SortKey key) {
+        Node view;
+        switch (key) {
+            case NAME: {
+                view = byName;
+                break;
+            }
+            case STATUS: {
+                view = byStatus;
+                break;
+            }
+            default: {
+                view = byTime;
+                break;
+            }
+        }
+        List<Task> out = new ArrayList<>(size);
+        collect(view, out);
+        return out;
+    }
+
+    private static void collect(Node n, List<Task> out) {
+        while (n != null) {
+            collect(n.left, out);
+            out.add(n.entry.task);
+            n = n.right;
+        }
+    }
+
+    private static Node build(Entry[] entries, Comparator<Entry> order) {
+        Entry[] sorted = entries.clone();
+        Arrays.sort(sorted, order);
+        return build(sorted, 0, sorted.length);
+    }
+
+    /** A treap over {@code sorted[from..to)}: the highest priority at the root. */
+    private static Node build(Entry[] sorted, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int top = from;
+        for (int i = from + 1; i < to; i++) {
+            if (sorted[i].priority > sorted[top].priority) {
+                top = i;
+            }
+        }
+        return new Node(sorted[top], build(sorted, from, top), build(sorted, top + 1, to));
+    }
+
+    private static Node insert(Node n, Entry e, Comparator<Entry> order) {
+        if (n == null) {
+            return new Node(e, null, null);
+        }
+        if (order.compare(e, n.entry) < 0) {
+            Node l = insert(n.left, e, order);
+            if (l.entry.priority > n.entry.priority) {
+                return new Node(l.entry, l.left, new Node(n.entry, l.right, n.right));
+            }
+            return new Node(n.entry, l, n.right);
+        }
+        Node r = insert(n.right, e, order);
+        if (r.entry.priority > n.entry.priority) {
+            return new Node(r.entry, new Node(n.entry, n.left, r.left), r.right);
+        }
+        return new Node(n.entry, n.left, r);
+    }
+
+    private static Node delete(Node n, Entry e, Comparator<Entry> order) {
+        if (n == null) {
+            return null;
+        }
+        int c = order.compare(e, n.entry);
+        if (c < 0) {
+            return new Node(n.entry, delete(n.left, e, order), n.right);
+        }
+        if (c > 0) {
+            return new Node(n.entry, n.left, delete(n.right, e, order));
+        }
+        return merge(n.left, n.right);
+    }
+
+    /** Joins two treaps whose entries all order {@code a} before {@code b}. */
+    private static Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.entry.priority > b.entry.priority) {
+            return new Node(a.entry, a.left, merge(a.right, b));
+        }
+        return new Node(b.entry, merge(a, b.left), b.right);
+    }
+
+    /** The time a task sorts by: a deadline's due time or an event's start. */
+    private static LocalDateTime timeOf(Task t) {
+        if (t instanceof Deadline) {
+            Deadline d = (Deadline) t;
+            if (d.getDueDateTime() != null) {
+                return d.getDueDateTime();
+            }
+            if (d.getDueDate() != null) {
+                return d.getDueDate().atStartOfDay();
+            }
+        }
+        if (t instanceof Event) {
+            Event e = (Event) t;
+            if (e.getFromDateTime() != null) {
+                return e.getFromDateTime();
+            }
+            if (e.getFromDate() != null) {
+                return e.getFromDate().atStartOfDay();
+            }
+        }
+        return null;
+    }
+
+    /** Murmur3 finalizer, so sequential ids still get a random-looking heap order. */
+    private static int mix(long id) {
+        int h = (int) (id ^ (id >>> 32));
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    /** A task with its sort keys as of when it was filed. */
+    private static final class Entry {
+        private final Task task;
+        private final long id;
+        private final LocalDateTime time;
+        private final boolean isDone;
+        private final int priority;
+
+        Entry(Task task, long id, boolean isDone) {
+            this.task = task;
+            this.id = id;
+            this.time = timeOf(task);
+            this.isDone = isDone;
+            this.priority = mix(id);
+        }
+    }
+
+    /** Immutable treap node. */
+    private static final class Node {
+        private final Entry entry;
+        private final Node left;
+        private final Node right;
+
+        Node(Entry entry, Node left, Node right) {
+            this.entry = entry;
+            this.left = left;
+            this.right = right;
+        }
+    }
+}
@@ -1,51 +1,170 @@
 package kenma;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
 
-/** Handles persistence of tasks to and from a plain-text file. */
+/**
+ * Handles persistence of tasks to and from a plain-text file, or a compact
+ * binary one (see {@link BinaryFormat}) when the path ends in {@code .bin}.
+ *
+ * <p>
+ * In <b>journaled</b> mode, mutations are appended as one-line records to a
+ * sidecar file ({@code <file>.journal}) instead of rewriting the whole file.
+ * {@link #load()} replays the snapshot plus the journal, and once the journal
+ * grows past {@link #COMPACT_THRESHOLD} records a background thread folds it
+ * into a fresh snapshot.
+ * </p>
+ *
+ * <p>
+ * Compaction first renames the active journal to
+ * {@code <file>.journal.<size>-<mtime>[-<key>]}, tagged with the attributes of the
+ * snapshot it applies to. A tagged journal is only replayed while the
+ * snapshot still carries those attributes, so a crash between replacing the
+ * snapshot and deleting the old journal never applies a record twice.
+ * </p>
+ */
 public class Storage {
+    /** Journal records accumulated before a background compaction is started. */
+    static final int COMPACT_THRESHOLD = 1024;
+
+    /** Snapshots at least this large are memory-mapped instead of read. */
+    static final long MAP_THRESHOLD = 16L << 20;
+    private static final long MAP_CHUNK = 256L << 20;
+    private static final int READ_CHUNK = 64 << 10;
+    /**
+     * Windows refuses to replace a file while a mapping of it is alive, and
+     * mappings are only released on GC, so save() could fail after a load.
+     */
+    private static final boolean CAN_MAP = !System.getProperty("os.name", "").startsWith("Windows");
+
+    private static final String OP_ADD = "A";
+    /** Add record carrying a Base64 {@link BinaryFormat} record, used by binary storages. */
+    private static final String OP_ADD_BINARY = "B";
+    /** Mark, unmark and remove records name one index or a {@link Selection}, e.g. {@code R | 3-500}. */
+    private static final String OP_MARK = "M";
+    private static final String OP_UNMARK = "U";
+    private static final String OP_REMOVE = "R";
+    /** Insert record, {@code I | <index> | <record>}, written when a removal is undone. */
+    private static final String OP_INSERT = "I";
+    /** Insert record carrying a Base64 {@link BinaryFormat} record, used by binary storages. */
+    private static final String OP_INSERT_BINARY = "J";
+
     private final Path file;
+    private final Path journal;
+    private final boolean isJournaled;
+    private final Format format;
+
+    private BufferedWriter journalWriter;
+    private int journalRecords;
+    private ExecutorService compactor;
+    private CompletableFuture<Void> pendingCompaction = CompletableFuture.completedFuture(null);
+
+    /** On-disk snapshot encodings. */
+    public enum Format {
+        /** Pipe-delimited lines, e.g. {@code D | 0 | return book | 2019-12-02}. */
+        TEXT,
+        /** Length-prefixed binary records with a versioned header. */
+        BINARY;
+
+        /** Picks {@link #BINARY} for {@code .bin} paths and {@link #TEXT} otherwise. */
+        public static Format forPath(String filePath) {
+            return filePath.toLowerCase().endsWith(".bin") ? BINARY : TEXT;
+        }
+    }
 
     public Storage(String filePath) {
+        this(filePath, false);
+    }
+
+    /**
+     * Creates a storage for the given file, choosing the format from its
+     * extension.
+     *
+     * @param filePath    path of the snapshot file
+     * @param isJournaled whether mutations are appended to a journal instead of
+     *                    rewriting the snapshot
+     */
+    public Storage(String filePath, boolean isJournaled) {
+        this(filePath, isJournaled, filePath == null ? Format.TEXT : Format.forPath(filePath));
+    }
+
+    /** Creates a storage with an explicit snapshot format. */
+    public Storage(String filePath, boolean isJournaled, Format format) {
         if (filePath == null || filePath.isBlank()) {
             throw new IllegalArgumentException("File path cannot be empty.");
         }
+        if (format == null) {
+            throw new IllegalArgumentException("Format cannot be null.");
+        }
         this.file = Paths.get(filePath);
+        this.journal = file.resolveSibling(file.getFileName() + ".journal");
+        this.isJournaled = isJournaled;
+        this.format = format;
+    }
+
+    public boolean isJournaled() {
+        return isJournaled;
+    }
+
+    public Format getFormat() {
+        return format;
     }
 
     public List<Task> load() {
+        return loadInto(new ArrayList<>());
+    }
+
+    /**
+     * {@link #load()} into {@code tasks}, e.g. a {@link ColumnarTaskList}.
+     * Marks replayed from the journal are written back with
+     * {@link List#set}, so lists that hand out copies stay in step.
+     */
+    <L extends List<Task>> L loadInto(L tasks) {
+        return read(tasks, true);
+    }
+
+    /**
+     * {@link #load()} without touching any file: a missing file is an error
+     * rather than created, and journals of an older snapshot are skipped
+     * rather than deleted. For tools reading data they do not own, such as
+     * {@link StorageConverter}.
+     */
+    public List<Task> loadReadOnly() {
+        return read(new ArrayList<>(), false);
+    }
+
+    private <L extends List<Task>> L read(L tasks, boolean isWritable) {
         try {
             if (!Files.exists(file)) {
+                if (!isWritable) {
+                    throw new DukeException("No such file: " + file);
+                }
                 Path parent = file.getParent();
                 if (parent != null) {
                     Files.createDirectories(parent);
                 }
                 Files.createFile(file);
-                return new ArrayList<>();
-            }
-            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
-            List<Task> tasks = new ArrayList<>();
-            int lineNo = 0;
-            for (String line : lines) {
-                lineNo++;
-                if (line == null || line.isBlank()) {
-                    continue;
-                }
-                try {
-                    Task t = decode(line);
-                    if (t != null) {
-                        tasks.add(t);
-                    }
-                } catch (Exception ex) {
-                    System.err.println("[WARN] Ignore corrupt line " + lineNo + ": " + ex.getMessage());
-                }
             }
+            readSnapshot(tasks);
+            replayJournals(tasks, isWritable);
             return tasks;
+        } catch (DukeException e) {
+            throw e;
         } catch (AccessDeniedException ade) {
             throw new DukeException("Access denied to data file: " + file);
         } catch (Exception e) {
@@ -53,16 +172,243 @@ public class Storage {
         }
     }
 
-    public void save(List<Task> tasks) {
+    /**
+     * Rewrites the whole snapshot. Any journal is folded away, so this is also
+     * the synchronous form of compaction.
+     */
+    public synchronized void save(List<Task> tasks) {
         if (tasks == null) {
             throw new IllegalArgumentException("Tasks cannot be null.");
         }
+        awaitCompaction();
+        try {
+            Path rotated = rotateJournal();
+            writeSnapshot(tasks);
+            if (rotated != null) {
+                Files.deleteIfExists(rotated);
+            }
+        } catch (AccessDeniedException ade) {
+            throw new DukeException("Access denied when saving to: " + file);
+        } catch (Exception e) {
+            throw new DukeException("Failed to save to: " + file + " (" + e.getMessage() + ")");
+        }
+    }
+
+    /** Journals the addition of {@code t} at the end of the list. */
+    public void logAdd(Task t) {
+        if (format == Format.BINARY) {
+            try {
+                appendRecord(OP_ADD_BINARY + " | " + Base64.getEncoder().encodeToString(BinaryFormat.encode(t)));
+            } catch (IOException e) {
+                throw new DukeException("Failed to encode task: " + e.getMessage());
+            }
+            return;
+        }
+        String s = encode(t);
+        if (s != null) {
+            appendRecord(OP_ADD + " | " + s);
+        }
+    }
+
+    /** Journals marking the task at the 1-based index as done. */
+    public void logMark(int idx1Based) {
+        appendRecord(OP_MARK + " | " + idx1Based);
+    }
+
+    /** Journals marking the task at the 1-based index as not done. */
+    public void logUnmark(int idx1Based) {
+        appendRecord(OP_UNMARK + " | " + idx1Based);
+    }
+
+    /** Journals putting {@code t} back at the 1-based index, as undoing a removal does. */
+    public void logInsert(int idx1Based, Task t) {
+        if (format == Format.BINARY) {
+            try {
+                appendRecord(OP_INSERT_BINARY + " | " + idx1Based + " | "
+                        + Base64.getEncoder().encodeToString(BinaryFormat.encode(t)));
+            } catch (IOException e) {
+                throw new DukeException("Failed to encode task: " + e.getMessage());
+            }
+            return;
+        }
+        String s = encode(t);
+        if (s != null) {
+            appendRecord(OP_INSERT + " | " + idx1Based + " | " + s);
+        }
+    }
+
+    /** Journals removal of the task at the 1-based index. */
+    public void logRemove(int idx1Based) {
+        appendRecord(OP_REMOVE + " | " + idx1Based);
+    }
+
+    /** Journals one bulk removal as a single record, e.g. {@code R | 3-500}. */
+    public void logRemoveAll(int[] positions) {
+        appendRecord(OP_REMOVE + " | " + Selection.format(positions));
+    }
+
+    /** Journals one bulk mark or unmark as a single record, e.g. {@code M | 1,4,9}. */
+    public void logMarkAll(int[] positions, boolean isDone) {
+        appendRecord((isDone ? OP_MARK : OP_UNMARK) + " | " + Selection.format(positions));
+    }
+
+    /**
+     * Journals putting tasks back at ascending 1-based indexes, one record
+     * each, in a single write.
+     */
+    public void logInsertAll(int[] positions, Task[] tasks) {
+        String[] records = new String[tasks.length];
+        for (int k = 0; k < tasks.length; k++) {
+            if (format == Format.BINARY) {
+                try {
+                    records[k] = OP_INSERT_BINARY + " | " + positions[k] + " | "
+                            + Base64.getEncoder().encodeToString(BinaryFormat.encode(tasks[k]));
+                } catch (IOException e) {
+                    throw new DukeException("Failed to encode task: " + e.getMessage());
+                }
+            } else {
+                records[k] = OP_INSERT + " | " + positions[k] + " | " + encode(tasks[k]);
+            }
+        }
+        appendRecord(records);
+    }
+
+    /**
+     * Starts a background compaction if the journal has grown past
+     * {@link #COMPACT_THRESHOLD} and none is running yet.
+     *
+     * @param tasks current list; copied before returning, so the caller may keep
+     *              mutating it
+     */
+    public synchronized void compactIfDue(List<Task> tasks) {
+        if (journalRecords < COMPACT_THRESHOLD || !pendingCompaction.isDone()) {
+            return;
+        }
+        List<Task> copy = new ArrayList<>(tasks);
+        Path rotated;
+        try {
+            rotated = rotateJournal();
+        } catch (IOException e) {
+            throw new DukeException("Failed to rotate journal: " + journal + " (" + e.getMessage() + ")");
+        }
+        if (compactor == null) {
+            compactor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "kenma-compactor");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        pendingCompaction = CompletableFuture.runAsync(() -> {
+            try {
+                writeSnapshot(copy);
+                if (rotated != null) {
+                    Files.deleteIfExists(rotated);
+                }
+            } catch (IOException e) {
+                // The rotated journal is kept, so load() still sees every record.
+                System.err.println("[WARN] Compaction failed: " + e.getMessage());
+            }
+        }, compactor);
+    }
+
+    /** Waits for a running compaction and releases the journal file. */
+    public synchronized void close() {
+        awaitCompaction();
+        if (compactor != null) {
+            compactor.shutdown();
+            compactor = null;
+        }
+        closeJournalWriter();
+    }
+
+    /** Appends the records as lines and flushes once. */
+    private synchronized void appendRecord(String... records) {
+        try {
+            if (journalWriter == null) {
+                journalWriter = Files.newBufferedWriter(journal, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+            }
+            for (String record : records) {
+                journalWriter.write(record);
+                journalWriter.newLine();
+            }
+            journalWriter.flush();
+            journalRecords += records.length;
+        } catch (AccessDeniedException ade) {
+            throw new DukeException("Access denied when writing journal: " + journal);
+        } catch (IOException e) {
+            throw new DukeException("Failed to write journal: " + journal + " (" + e.getMessage() + ")");
+        }
+    }
+
+    private void awaitCompaction() {
+        try {
+            pendingCompaction.join();
+        } catch (Exception ignore) {
+        }
+    }
+
+    private void closeJournalWriter() {
+        if (journalWriter == null) {
+            return;
+        }
         try {
-            Path parent = file.getParent();
-            if (parent != null) {
-                Files.createDirectories(parent);
+            journalWriter.close();
+        } catch (IOException ignore) {
+        }
+        journalWriter = null;
+    }
+
+    /**
+     * Moves the active journal aside, tagged with the current snapshot
+     * attributes. Returns the tagged path, or {@code null} if there was no
+     * journal.
+     */
+    private Path rotateJournal() throws IOException {
+        closeJournalWriter();
+        journalRecords = 0;
+        if (!Files.exists(journal)) {
+            return null;
+        }
+        Path rotated = journal.resolveSibling(journal.getFileName() + "." + snapshotTag());
+        if (Files.exists(rotated)) {
+            // Left over from an interrupted compaction against this same snapshot.
+            Files.write(rotated, Files.readAllLines(journal, StandardCharsets.UTF_8), StandardCharsets.UTF_8,
+                    StandardOpenOption.APPEND);
+            Files.delete(journal);
+        } else {
+            Files.move(journal, rotated);
+        }
+        return rotated;
+    }
+
+    private String snapshotTag() throws IOException {
+        if (!Files.exists(file)) {
+            return "0-0";
+        }
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        // The file key (inode on POSIX) changes on every replace, even within one mtime tick.
+        Object key = attrs.fileKey();
+        return attrs.size() + "-" + attrs.lastModifiedTime().toMillis()
+                + (key == null ? "" : "-" + Integer.toHexString(key.hashCode()));
+    }
+
+    private void writeSnapshot(List<Task> tasks) throws IOException {
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        if (format == Format.BINARY) {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE),
+                    READ_CHUNK))) {
+                BinaryFormat.writeHeader(out, tasks.size());
+                for (Task t : tasks) {
+                    BinaryFormat.write(out, t);
+                }
             }
-            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        } else {
             try (BufferedWriter bw = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8,
                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
                 for (Task t : tasks) {
@@ -73,67 +419,241 @@ public class Storage {
                     }
                 }
             }
-            try {
-                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
-            } catch (AtomicMoveNotSupportedException ignore) {
-                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ignore) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Streams the snapshot from the file bytes straight into tasks, without
+     * materializing the lines. Large files are memory-mapped in windows of
+     * {@link #MAP_CHUNK} bytes; small ones are read through a single reusable
+     * buffer.
+     */
+    private void readSnapshot(List<Task> tasks) throws IOException {
+        if (format == Format.BINARY) {
+            readBinarySnapshot(tasks);
+            return;
+        }
+        LineDecoder decoder = new LineDecoder(tasks);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (CAN_MAP && size >= MAP_THRESHOLD) {
+                for (long pos = 0; pos < size; pos += MAP_CHUNK) {
+                    decoder.feed(ch.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(MAP_CHUNK, size - pos)));
+                }
+            } else {
+                ByteBuffer buf = ByteBuffer.allocate(READ_CHUNK);
+                while (ch.read(buf) >= 0) {
+                    buf.flip();
+                    decoder.feed(buf);
+                    buf.clear();
+                }
             }
-        } catch (AccessDeniedException ade) {
-            throw new DukeException("Access denied when saving to: " + file);
-        } catch (Exception e) {
-            throw new DukeException("Failed to save to: " + file + " (" + e.getMessage() + ")");
         }
+        decoder.finish();
     }
 
-    private Task decode(String line) {
-        String[] p = Arrays.stream(line.split("\\|"))
-                .map(String::trim)
-                .toArray(String[]::new);
-        if (p.length < 3) {
-            return null;
+    /**
+     * Reads a {@link BinaryFormat} snapshot. A truncated or corrupt tail is
+     * reported and dropped, keeping every record before it.
+     */
+    private void readBinarySnapshot(List<Task> tasks) throws IOException {
+        if (Files.size(file) == 0) {
+            return;
         }
-        String type = p[0];
-        boolean isDone = "1".equals(p[1]);
-        String desc = p[2];
-        try {
-            switch (type) {
-                case "T": {
-                    Todo t = new Todo(desc);
-                    if (isDone) {
-                        t.markAsDone();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            BinaryFormat.Input in = new BinaryFormat.Input(ByteBuffer.allocate(READ_CHUNK).flip(), ch);
+            int count = BinaryFormat.readHeader(in);
+            BinaryFormat records = new BinaryFormat();
+            if (tasks instanceof ArrayList) {
+                ((ArrayList<Task>) tasks).ensureCapacity(Math.max(0, Math.min(count, 1 << 24)));
+            }
+            for (int i = 0; i < count; i++) {
+                try {
+                    tasks.add(records.read(in));
+                } catch (IOException ex) {
+                    System.err.println("[WARN] Ignore corrupt records from #" + (i + 1) + ": " + ex.getMessage());
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits raw UTF-8 bytes into lines (LF or CRLF) and decodes each one as it
+     * completes. Lines may straddle buffer boundaries.
+     */
+    private static class LineDecoder {
+        private final RecordDecoder records = new RecordDecoder();
+        private final List<Task> tasks;
+        private byte[] line = new byte[256];
+        private int len;
+        private int lineNo;
+
+        LineDecoder(List<Task> tasks) {
+            this.tasks = tasks;
+        }
+
+        void feed(ByteBuffer buf) {
+            while (buf.hasRemaining()) {
+                byte b = buf.get();
+                if (b == '\n') {
+                    accept();
+                } else {
+                    if (len == line.length) {
+                        line = Arrays.copyOf(line, len * 2);
                     }
-                    return t;
+                    line[len++] = b;
+                }
+            }
+        }
+
+        void finish() {
+            if (len > 0) {
+                accept();
+            }
+        }
+
+        private void accept() {
+            lineNo++;
+            int end = len;
+            len = 0;
+            if (end > 0 && line[end - 1] == '\r') {
+                end--;
+            }
+            try {
+                Task t = records.decode(line, 0, end);
+                if (t != null) {
+                    tasks.add(t);
+                }
+            } catch (Exception ex) {
+                System.err.println("[WARN] Ignore corrupt line " + lineNo + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Applies the tagged journal that matches the snapshot (if any) and then the
+     * active journal. Tagged journals for older snapshots are already folded in
+     * and are deleted.
+     */
+    private void replayJournals(List<Task> tasks, boolean isWritable) throws IOException {
+        String prefix = journal.getFileName() + ".";
+        String current = prefix + snapshotTag();
+        Path parent = journal.toAbsolutePath().getParent();
+        try (Stream<Path> siblings = Files.list(parent)) {
+            for (Path p : (Iterable<Path>) siblings::iterator) {
+                String name = p.getFileName().toString();
+                if (!name.startsWith(prefix)) {
+                    continue;
+                }
+                if (name.equals(current)) {
+                    replay(p, tasks);
+                } else if (isWritable) {
+                    Files.deleteIfExists(p);
                 }
-                case "D": {
-                    if (p.length < 4) {
-                        return null;
+            }
+        }
+        if (Files.exists(journal)) {
+            int records = replay(journal, tasks);
+            if (isWritable) {
+                journalRecords = records;
+            }
+        }
+    }
+
+    private int replay(Path log, List<Task> tasks) throws IOException {
+        RecordDecoder records = new RecordDecoder();
+        BinaryFormat binaryRecords = new BinaryFormat();
+        int lineNo = 0;
+        int applied = 0;
+        for (String line : Files.readAllLines(log, StandardCharsets.UTF_8)) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            int sep = line.indexOf('|');
+            String op = sep < 0 ? line.trim() : line.substring(0, sep).trim();
+            String rest = sep < 0 ? "" : line.substring(sep + 1).trim();
+            try {
+                switch (op) {
+                    case OP_ADD: {
+                        Task t = records.decode(rest);
+                        if (t != null) {
+                            tasks.add(t);
+                        }
+                        break;
                     }
-                    Deadline d = new Deadline(desc, p[3]);
-                    if (isDone) {
-                        d.markAsDone();
+                    case OP_ADD_BINARY: {
+                        tasks.add(binaryRecords.decode(Base64.getDecoder().decode(rest)));
+                        break;
                     }
-                    return d;
-                }
-                case "E": {
-                    if (p.length >= 5) {
-                        Event e = new Event(desc, p[3], p[4]);
-                        if (isDone) {
-                            e.markAsDone();
+                    case OP_MARK:
+                    case OP_UNMARK: {
+                        boolean isDone = op.equals(OP_MARK);
+                        for (int pos : Selection.parse(rest, tasks.size())) {
+                            Task t = tasks.get(pos - 1);
+                            if (t.isDone() != isDone) {
+                                if (isDone) {
+                                    t.markAsDone();
+                                } else {
+                                    t.markAsNotDone();
+                                }
+                                tasks.set(pos - 1, t);
+                            }
                         }
-                        return e;
-                    } else if (p.length == 4) {
-                        return null;
-                    } else {
-                        return null;
+                        break;
+                    }
+                    case OP_REMOVE: {
+                        removeAll(tasks, Selection.parse(rest, tasks.size()));
+                        break;
+                    }
+                    case OP_INSERT:
+                    case OP_INSERT_BINARY: {
+                        int bar = rest.indexOf('|');
+                        int i = Integer.parseInt(rest.substring(0, bar).trim()) - 1;
+                        String record = rest.substring(bar + 1).trim();
+                        Task t = op.equals(OP_INSERT)
+                                ? records.decode(record)
+                                : binaryRecords.decode(Base64.getDecoder().decode(record));
+                        if (t != null) {
+                            tasks.add(i, t);
+                        }
+                        break;
+                    }
+                    default: {
+                        throw new IllegalArgumentException("unknown record '" + op + "'");
                     }
                 }
-                default: {
-                    return null;
-                }
+                applied++;
+            } catch (Exception ex) {
+                System.err.println("[WARN] Ignore corrupt journal line " + lineNo + ": " + ex.getMessage());
+            }
+        }
+        return applied;
+    }
+
+    /** Removes ascending 1-based positions in one pass rather than one shift each. */
+    private static void removeAll(List<Task> tasks, int[] positions) {
+        if (positions.length == 1) {
+            tasks.remove(positions[0] - 1);
+            return;
+        }
+        List<Task> kept = new ArrayList<>(tasks.size() - positions.length);
+        int k = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            if (k < positions.length && positions[k] == i + 1) {
+                k++;
+            } else {
+                kept.add(tasks.get(i));
             }
-        } catch (Exception ex) {
-            return null;
         }
+        tasks.clear();
+        tasks.addAll(kept);
     }
 
     private String encode(Task t) {
@@ -0,0 +1,48 @@
+package kenma;
+
+import java.util.List;
+
+/**
+ * Command-line tool that converts a task file between the text and binary
+ * formats, e.g. {@code java kenma.StorageConverter data/kenma.txt data/kenma.bin}.
+ * Each side's format is taken from its extension (see
+ * {@link Storage.Format#forPath}).
+ */
+public class StorageConverter {
+
+    /**
+     * Converts {@code source} into {@code target}, replacing the target.
+     *
+     * @return number of tasks written
+     * @throws DukeException if the source is missing, or a task cannot be
+     *                       represented in the target format without loss
+     */
+    public static int convert(String source, String target) {
+        List<Task> tasks = new Storage(source).loadReadOnly();
+        Storage out = new Storage(target);
+        if (out.getFormat() == Storage.Format.TEXT) {
+            for (int i = 0; i < tasks.size(); i++) {
+                if (!BinaryFormat.isTextSafe(tasks.get(i))) {
+                    throw new DukeException("Task " + (i + 1) + " cannot be stored as text without loss: "
+                            + tasks.get(i));
+                }
+            }
+        }
+        out.save(tasks);
+        return tasks.size();
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: StorageConverter <source> <target>  (.bin = binary, otherwise text)");
+            System.exit(2);
+        }
+        try {
+            int n = convert(args[0], args[1]);
+            System.out.println("Converted " + n + (n == 1 ? " task" : " tasks") + ": " + args[0] + " -> " + args[1]);
+        } catch (DukeException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -18,11 +18,25 @@ import java.util.Objects;
  * {@link #keyStart()}, and {@link #keyEnd()} to participate in equality if they
  * carry time fields.
  * </p>
+ *
+ * <p>
+ * Those keys are computed once, on the first equality or hash check, and
+ * cached; every value they depend on is fixed at construction. The display
+ * line from {@link #toString()} is cached too, and dropped whenever the task
+ * is marked or unmarked.
+ * </p>
  */
 public class Task {
     private final String description;
-    private boolean isDone;
+    /** Volatile so lock-free readers of a shared {@link TaskList} see marks promptly. */
+    private volatile boolean isDone;
     private final TaskType type;
+    /** Semantic key, built lazily once the subclass constructor has run. */
+    private Key key;
+    /** {@code description.toLowerCase()}, built lazily. */
+    private String lower;
+    /** Display line, built lazily; {@code null} after a status change. */
+    private volatile Line line;
 
     /**
      * Creates a task.
@@ -48,6 +62,16 @@ public class Task {
         return description;
     }
 
+    /** The description lower-cased with {@link String#toLowerCase()}, as {@code find} matches it. */
+    String getLowerDescription() {
+        String l = lower;
+        if (l == null) {
+            l = description.toLowerCase();
+            lower = l;
+        }
+        return l;
+    }
+
     public boolean isDone() {
         return isDone;
     }
@@ -63,12 +87,14 @@ public class Task {
     public void markAsDone() {
         boolean before = this.isDone;
         this.isDone = true;
+        this.line = null;
         assert this.isDone && !before;
     }
 
     public void markAsNotDone() {
         boolean before = this.isDone;
         this.isDone = false;
+        this.line = null;
         assert !this.isDone && before;
     }
 
@@ -97,20 +123,34 @@ public class Task {
         return null;
     }
 
-    /** Normalized description used for equality: trimmed + case-insensitive. */
-    private String normalizedDescription() {
-        return description.trim().toLowerCase();
+    /**
+     * The display line, e.g. {@code [D][X] return book (by: Dec 2 2019)}.
+     * Rendered once per status and reused, so listing an unchanged list does
+     * not format dates or concatenate again.
+     */
+    @Override
+    public final String toString() {
+        boolean done = isDone;
+        Line l = line;
+        if (l == null || l.isDone != done) {
+            l = new Line(done, render(done));
+            line = l;
+        }
+        return l.text;
     }
 
-    @Override
-    public String toString() {
-        return "[" + getStatusIcon() + "] " + description;
+    /**
+     * Builds the display line for the given status. Subclasses prepend their
+     * type symbol and append their times.
+     */
+    protected String render(boolean isDone) {
+        return "[" + (isDone ? "X" : " ") + "] " + description;
     }
 
     /**
      * Semantic equality:
      * - same concrete class (Todo vs Deadline vs Event)
-     * - same normalized description
+     * - same normalized description (trimmed + case-insensitive)
      * - same time keys (if provided by subclass)
      */
     @Override
@@ -121,26 +161,69 @@ public class Task {
         if (!(obj instanceof Task)) {
             return false;
         }
-        Task other = (Task) obj;
+        return key().equals(((Task) obj).key());
+    }
 
-        // Must be the same concrete type (Todo vs Deadline vs Event)
-        if (!this.getClass().equals(other.getClass())) {
-            return false;
+    @Override
+    public int hashCode() {
+        return key().hash;
+    }
+
+    private Key key() {
+        Key k = key;
+        if (k == null) {
+            k = new Key(getClass(), getLowerDescription().trim(), keyBy(), keyStart(), keyEnd());
+            key = k;
         }
+        return k;
+    }
+
+    /** A rendered display line and the status it shows. */
+    private static final class Line {
+        private final boolean isDone;
+        private final String text;
 
-        // Compare normalized description and any time keys
-        return Objects.equals(this.normalizedDescription(), other.normalizedDescription())
-                && Objects.equals(this.keyBy(), other.keyBy())
-                && Objects.equals(this.keyStart(), other.keyStart())
-                && Objects.equals(this.keyEnd(), other.keyEnd());
+        Line(boolean isDone, String text) {
+            this.isDone = isDone;
+            this.text = text;
+        }
     }
 
-    @Override
-    public int hashCode() {
-        return Objects.hash(
-                getClass(), // concrete type
-                normalizedDescription(), // description (normalized)
-                keyBy(), keyStart(), keyEnd() // optional time keys
-        );
+    /** Immutable snapshot of everything equality looks at, with its hash precomputed. */
+    private static final class Key {
+        private final Class<?> cls;
+        private final String description;
+        private final String by;
+        private final String start;
+        private final String end;
+        private final int hash;
+
+        Key(Class<?> cls, String description, String by, String start, String end) {
+            this.cls = cls;
+            this.description = description;
+            this.by = by;
+            this.start = start;
+            this.end = end;
+            this.hash = Objects.hash(cls, description, by, start, end);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            Key other = (Key) obj;
+            return hash == other.hash
+                    && cls == other.cls
+                    && description.equals(other.description)
+                    && Objects.equals(by, other.by)
+                    && Objects.equals(start, other.start)
+                    && Objects.equals(end, other.end);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
     }
 }
@@ -1,74 +1,589 @@
 package kenma;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Mutable list of tasks backed by an ArrayList.
- * Exposes read-only view to callers to prevent external mutation.
+ * {@link TaskStore} of task objects, safe to share between threads.
+ *
+ * <p>
+ * The tasks live in a copy-on-write array published through a volatile
+ * {@link Snapshot}: {@link #all()}, {@link #snapshot()}, {@link #get(int)},
+ * {@link #size()}, {@link #find(String)}, {@link #occurringBetween} and
+ * {@link #sorted(SortKey)} read it without locking, so they never wait for
+ * (or hold up) a writer. Appends write into spare capacity that no published
+ * snapshot covers, so they stay O(1) amortized; removals copy. Writes are
+ * serialized per list by a lock.
+ * </p>
+ *
+ * <p>
+ * Each snapshot also carries the indexes its queries use, built by the first
+ * query that needs one and then handed on by every writer to the snapshot it
+ * publishes, updated for its change. {@link KeywordIndex} and
+ * {@link DateIndex} only grow, and find a snapshot's tasks through its sorted
+ * task ids; {@link SortedViews} is persistent, so each snapshot has its own.
+ * Ids ascend along the list with gaps between them, so an inserted task takes
+ * an id between its neighbours' and is filed like an appended one. An id may
+ * be handed out again after its task is removed, so the indexes check every
+ * hit against the task now holding it.
+ * </p>
  */
-public class TaskList {
-    private final ArrayList<Task> tasks;
+public class TaskList implements TaskStore {
+    /**
+     * Spacing of the ids of tasks appended or loaded, leaving room for about
+     * twenty inserts between two neighbours before the ids are spread again.
+     */
+    private static final long GAP = 1L << 20;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Snapshot current;
+    /** Id of the next appended task, above every id in use. Writers only. */
+    private long nextId;
+    /**
+     * How many tasks equal each key, for O(1) duplicate checks. Counts rather
+     * than a set because a loaded file may already hold duplicates. Built on
+     * the first {@link #add(Task)}.
+     */
+    private HashMap<Task, Integer> present;
 
     public TaskList() {
-        this.tasks = new ArrayList<>();
+        this.current = new Snapshot(new Task[0], new long[0], 0);
     }
 
     public TaskList(List<Task> init) {
         if (init == null) {
             throw new IllegalArgumentException("Initial list cannot be null.");
         }
-        this.tasks = new ArrayList<>(init);
+        Task[] items = init.toArray(new Task[0]);
+        this.current = new Snapshot(items, sequentialIds(items.length, items.length), items.length);
+        this.nextId = items.length * GAP;
     }
 
-    /** Read-only view to prevent representation exposure. */
+    /** Read-only view of the tasks as of this call; later changes are not reflected. */
+    @Override
     public List<Task> all() {
-        return Collections.unmodifiableList(tasks);
+        return current;
+    }
+
+    /** Immutable copy of the current tasks, safe to iterate from another thread. O(1). */
+    @Override
+    public List<Task> snapshot() {
+        return current;
     }
 
+    @Override
     public int size() {
-        return tasks.size();
+        return current.size;
     }
 
     /** 1-based index access with error handling. */
+    @Override
     public Task get(int idx1Based) {
-        ensureIndex(idx1Based);
-        return tasks.get(idx1Based - 1);
+        Snapshot s = current;
+        ensureIndex(idx1Based, s.size);
+        return s.items[idx1Based - 1];
     }
 
     /** Prevent duplicate tasks (semantic equality). */
+    @Override
     public void add(Task t) {
         if (t == null) {
             throw new IllegalArgumentException("Task cannot be null.");
         }
-        if (tasks.contains(t)) {
-            throw new DukeException("Duplicate task: " + t);
+        lock.lock();
+        try {
+            Snapshot s = current;
+            if (present == null) {
+                present = new HashMap<>(Math.max(16, s.size * 2));
+                for (Task existing : s) {
+                    present.merge(existing, 1, Integer::sum);
+                }
+            }
+            if (present.containsKey(t)) {
+                throw new DukeException("Duplicate task: " + t);
+            }
+            present.put(t, 1);
+            Task[] items = s.items;
+            long[] ids = s.ids;
+            if (s.size == items.length) {
+                int capacity = Math.max(16, s.size + (s.size >> 1));
+                items = Arrays.copyOf(items, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+            }
+            long id = nextId;
+            nextId += GAP;
+            // Slot s.size lies beyond every published snapshot, so readers never see these writes.
+            items[s.size] = t;
+            ids[s.size] = id;
+            KeywordIndex keywords = s.keywords;
+            if (keywords != null) {
+                keywords.add(t, id);
+            }
+            DateIndex dates = s.dates;
+            if (dates != null) {
+                dates.add(t, id);
+            }
+            SortedViews views = s.views;
+            if (views != null) {
+                views = views.add(t, id);
+            }
+            current = new Snapshot(items, ids, s.size + 1, keywords, dates, views);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts {@code t} back at the 1-based index, shifting later tasks down; used
+     * to undo a removal. The indexes are updated in place.
+     */
+    @Override
+    public void insert(int idx1Based, Task t) {
+        if (t == null) {
+            throw new IllegalArgumentException("Task cannot be null.");
+        }
+        lock.lock();
+        try {
+            Snapshot s = current;
+            if (idx1Based == s.size + 1) {
+                add(t);
+                return;
+            }
+            ensureIndex(idx1Based, s.size);
+            if (present != null) {
+                if (present.containsKey(t)) {
+                    throw new DukeException("Duplicate task: " + t);
+                }
+                present.put(t, 1);
+            } else if (s.contains(t)) {
+                throw new DukeException("Duplicate task: " + t);
+            }
+            int at = idx1Based - 1;
+            Task[] items = new Task[Math.max(s.items.length, s.size + 1)];
+            System.arraycopy(s.items, 0, items, 0, at);
+            items[at] = t;
+            System.arraycopy(s.items, at, items, at + 1, s.size - at);
+            long[] ids = new long[items.length];
+            System.arraycopy(s.ids, 0, ids, 0, at);
+            System.arraycopy(s.ids, at, ids, at + 1, s.size - at);
+            long hi = s.ids[at];
+            long lo = at == 0 ? hi - 2 * GAP : s.ids[at - 1];
+            ids[at] = lo + (hi - lo) / 2;
+            publishInserted(s, items, ids, s.size + 1, new Task[] { t }, new long[] { ids[at] }, ids[at] == lo);
+        } finally {
+            lock.unlock();
         }
-        tasks.add(t);
     }
 
+    @Override
     public Task remove(int idx1Based) {
-        ensureIndex(idx1Based);
-        return tasks.remove(idx1Based - 1);
+        lock.lock();
+        try {
+            Snapshot s = current;
+            ensureIndex(idx1Based, s.size);
+            int at = idx1Based - 1;
+            Task removed = s.items[at];
+            Task[] items = new Task[s.items.length];
+            System.arraycopy(s.items, 0, items, 0, at);
+            System.arraycopy(s.items, at + 1, items, at, s.size - at - 1);
+            long[] ids = new long[s.ids.length];
+            System.arraycopy(s.ids, 0, ids, 0, at);
+            System.arraycopy(s.ids, at + 1, ids, at, s.size - at - 1);
+            int size = s.size - 1;
+            if (present != null) {
+                present.computeIfPresent(removed, (k, n) -> n == 1 ? null : n - 1);
+            }
+            // Stale entries cost the queries nothing but space; drop an index they dominate.
+            KeywordIndex keywords = s.keywords;
+            if (keywords != null && !keywords.remove(size)) {
+                keywords = null;
+            }
+            DateIndex dates = s.dates;
+            if (dates != null && !dates.remove(size)) {
+                dates = null;
+            }
+            SortedViews views = s.views;
+            if (views != null) {
+                views = views.remove(removed, s.ids[at]);
+            }
+            current = new Snapshot(items, ids, size, keywords, dates, views);
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the tasks at the given 1-based indexes in one pass over the list.
+     *
+     * @param positions ascending, distinct 1-based indexes
+     * @return the removed tasks, in list order
+     */
+    @Override
+    public Task[] removeAll(int[] positions) {
+        lock.lock();
+        try {
+            Snapshot s = current;
+            checkPositions(positions, s.size);
+            Task[] removed = new Task[positions.length];
+            Task[] items = new Task[s.items.length];
+            long[] ids = new long[s.ids.length];
+            int n = 0;
+            int k = 0;
+            for (int i = 0; i < s.size; i++) {
+                if (k < positions.length && positions[k] == i + 1) {
+                    removed[k++] = s.items[i];
+                } else {
+                    items[n] = s.items[i];
+                    ids[n++] = s.ids[i];
+                }
+            }
+            KeywordIndex keywords = s.keywords;
+            DateIndex dates = s.dates;
+            SortedViews views = s.views;
+            for (int j = 0; j < removed.length; j++) {
+                if (present != null) {
+                    present.computeIfPresent(removed[j], (key, c) -> c == 1 ? null : c - 1);
+                }
+                if (keywords != null && !keywords.remove(n)) {
+                    keywords = null;
+                }
+                if (dates != null && !dates.remove(n)) {
+                    dates = null;
+                }
+                if (views != null) {
+                    views = views.remove(removed[j], s.ids[positions[j] - 1]);
+                }
+            }
+            current = new Snapshot(items, ids, n, keywords, dates, views);
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts tasks back at the given 1-based indexes in one pass, as undoing
+     * {@link #removeAll} does. All or none are inserted.
+     *
+     * @param positions ascending, distinct 1-based indexes in the resulting list
+     * @param tasks     the task for each index
+     */
+    @Override
+    public void insertAll(int[] positions, Task[] tasks) {
+        lock.lock();
+        try {
+            Snapshot s = current;
+            checkPositions(positions, s.size + positions.length);
+            if (present == null) {
+                present = new HashMap<>(Math.max(16, s.size * 2));
+                for (Task existing : s) {
+                    present.merge(existing, 1, Integer::sum);
+                }
+            }
+            for (int k = 0; k < tasks.length; k++) {
+                if (present.containsKey(tasks[k])) {
+                    for (int j = 0; j < k; j++) {
+                        present.computeIfPresent(tasks[j], (key, c) -> c == 1 ? null : c - 1);
+                    }
+                    throw new DukeException("Duplicate task: " + tasks[k]);
+                }
+                present.put(tasks[k], 1);
+            }
+            int size = s.size + tasks.length;
+            Task[] items = new Task[Math.max(s.items.length, size)];
+            long[] ids = new long[items.length];
+            long[] added = new long[tasks.length];
+            boolean isCrowded = false;
+            int from = 0;
+            int k = 0;
+            for (int i = 0; i < size; i++) {
+                if (k < positions.length && positions[k] == i + 1) {
+                    if (from == s.size) {
+                        ids[i] = nextId;
+                        nextId += GAP;
+                    } else {
+                        long hi = s.ids[from];
+                        long lo = i == 0 ? hi - 2 * GAP : ids[i - 1];
+                        ids[i] = lo + (hi - lo) / 2;
+                        isCrowded |= ids[i] == lo;
+                    }
+                    items[i] = tasks[k];
+                    added[k++] = ids[i];
+                } else {
+                    items[i] = s.items[from];
+                    ids[i] = s.ids[from++];
+                }
+            }
+            publishInserted(s, items, ids, size, tasks, added, isCrowded);
+        } finally {
+            lock.unlock();
+        }
     }
 
+    /**
+     * Marks (or unmarks) the tasks at the given 1-based indexes under one
+     * lock, skipping those already in that state.
+     *
+     * @param positions ascending, distinct 1-based indexes
+     * @return the indexes whose status changed
+     */
+    @Override
+    public int[] setDoneAll(int[] positions, boolean isDone) {
+        lock.lock();
+        try {
+            Snapshot s = current;
+            checkPositions(positions, s.size);
+            SortedViews views = s.views;
+            int[] changed = new int[positions.length];
+            int n = 0;
+            for (int pos : positions) {
+                Task t = s.items[pos - 1];
+                if (t.isDone() == isDone) {
+                    continue;
+                }
+                if (isDone) {
+                    t.markAsDone();
+                } else {
+                    t.markAsNotDone();
+                }
+                if (views != null) {
+                    views = views.statusChanged(t, s.ids[pos - 1]);
+                }
+                changed[n++] = pos;
+            }
+            statusChanged(s, views);
+            return Arrays.copyOf(changed, n);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Marks the task at the 1-based index as done and returns it. */
+    @Override
+    public Task mark(int idx1Based) {
+        lock.lock();
+        try {
+            Snapshot s = current;
+            SortedViews views = s.views;
+            Task t = get(idx1Based);
+            t.markAsDone();
+            statusChanged(s, views == null ? null : views.statusChanged(t, s.ids[idx1Based - 1]));
+            return t;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Marks the task at the 1-based index as not done and returns it. */
+    @Override
+    public Task unmark(int idx1Based) {
+        lock.lock();
+        try {
+            Snapshot s = current;
+            SortedViews views = s.views;
+            Task t = get(idx1Based);
+            t.markAsNotDone();
+            statusChanged(s, views == null ? null : views.statusChanged(t, s.ids[idx1Based - 1]));
+            return t;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Case-insensitive substring search, in list order (see {@link KeywordIndex}). */
+    @Override
     public List<Task> find(String keyword) {
         if (keyword == null || keyword.isBlank()) {
             throw new DukeException("Keyword for find cannot be empty.");
         }
         String needle = keyword.toLowerCase();
-        return tasks.stream()
-                .filter(t -> {
-                    String d = t.getDescription();
-                    return d != null && d.toLowerCase().contains(needle);
-                })
-                .toList();
+        Snapshot s = current;
+        int[] hits = needle.length() < KeywordIndex.GRAM
+                ? KeywordIndex.scan(needle, s.items, s.size)
+                : s.keywords().find(needle, s.items, s.ids, s.size);
+        Task[] found = new Task[hits.length];
+        for (int k = 0; k < hits.length; k++) {
+            found[k] = s.items[hits[k]];
+        }
+        return Collections.unmodifiableList(Arrays.asList(found));
+    }
+
+    /**
+     * Deadlines due and events running on any day from {@code from} to
+     * {@code to} inclusive, in list order (see {@link DateIndex}).
+     */
+    @Override
+    public Hits occurringBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Dates cannot be null.");
+        }
+        if (to.isBefore(from)) {
+            throw new DukeException("End date must not be before start date.");
+        }
+        Snapshot s = current;
+        return new Hits(s.dates().between(from, to, s.items, s.ids, s.size), s);
     }
 
-    private void ensureIndex(int idx1Based) {
-        if (idx1Based <= 0 || idx1Based > tasks.size()) {
-            throw new DukeException("Index out of range. Valid range: 1.." + tasks.size() + ".");
+    /** All tasks ordered by {@code key}; ties keep list order (see {@link SortedViews}). */
+    @Override
+    public List<Task> sorted(SortKey key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Sort key cannot be null.");
+        }
+        return current.sorted(key);
+    }
+
+    /**
+     * Publishes the same tasks again after a mark or unmark, so sorts cached
+     * for {@code s} are not reused, with {@code views} re-filed by status.
+     */
+    private void statusChanged(Snapshot s, SortedViews views) {
+        current = new Snapshot(s.items, s.ids, s.size, s.keywords, s.dates, views);
+    }
+
+    /**
+     * Publishes {@code items} after inserting {@code tasks} under the ids
+     * {@code added}, filing them in the indexes of {@code s}. When an insert
+     * found no id left between its neighbours ({@code isCrowded}), the ids
+     * are spread out again instead and the indexes rebuilt on their next use.
+     */
+    private void publishInserted(Snapshot s, Task[] items, long[] ids, int size, Task[] tasks, long[] added,
+            boolean isCrowded) {
+        if (isCrowded) {
+            long[] spread = sequentialIds(ids.length, size);
+            nextId = size * GAP;
+            current = new Snapshot(items, spread, size);
+            return;
+        }
+        KeywordIndex keywords = s.keywords;
+        DateIndex dates = s.dates;
+        SortedViews views = s.views;
+        for (int k = 0; k < tasks.length; k++) {
+            if (keywords != null) {
+                keywords.add(tasks[k], added[k]);
+            }
+            if (dates != null) {
+                dates.add(tasks[k], added[k]);
+            }
+            if (views != null) {
+                views = views.add(tasks[k], added[k]);
+            }
+        }
+        current = new Snapshot(items, ids, size, keywords, dates, views);
+    }
+
+    /** Ids {@code GAP} apart for the first {@code size} slots of an array of {@code capacity}. */
+    private static long[] sequentialIds(int capacity, int size) {
+        long[] ids = new long[capacity];
+        for (int i = 0; i < size; i++) {
+            ids[i] = i * GAP;
+        }
+        return ids;
+    }
+
+    /** Validates the positions of a bulk operation; shared with {@link ReadMostlyTaskList}. */
+    static void checkPositions(int[] positions, int size) {
+        for (int k = 0; k < positions.length; k++) {
+            ensureIndex(positions[k], size);
+            if (k > 0 && positions[k] <= positions[k - 1]) {
+                throw new IllegalArgumentException("Positions must be ascending and distinct.");
+            }
+        }
+    }
+
+    static void ensureIndex(int idx1Based, int size) {
+        if (idx1Based <= 0 || idx1Based > size) {
+            throw new DukeException("Index out of range. Valid range: 1.." + size + ".");
+        }
+    }
+
+    /**
+     * The first {@code size} slots of a backing array, with their task ids in
+     * a parallel array, ascending. Never changes once published: writers only
+     * append past {@code size} or copy. Its indexes and sorts are computed by
+     * the first reader that needs them and kept with it.
+     */
+    private static final class Snapshot extends AbstractList<Task> implements RandomAccess {
+        private final Task[] items;
+        private final long[] ids;
+        private final int size;
+        private volatile KeywordIndex keywords;
+        private volatile DateIndex dates;
+        private volatile SortedViews views;
+        /** Copy-on-write, so readers can fill it without a lock. */
+        private volatile EnumMap<SortKey, List<Task>> sortedCache;
+
+        Snapshot(Task[] items, long[] ids, int size) {
+            this(items, ids, size, null, null, null);
+        }
+
+        Snapshot(Task[] items, long[] ids, int size, KeywordIndex keywords, DateIndex dates, SortedViews views) {
+            this.items = items;
+            this.ids = ids;
+            this.size = size;
+            this.keywords = keywords;
+            this.dates = dates;
+            this.views = views;
+        }
+
+        @Override
+        public Task get(int index) {
+            Objects.checkIndex(index, size);
+            return items[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        KeywordIndex keywords() {
+            KeywordIndex k = keywords;
+            if (k == null) {
+                k = new KeywordIndex(items, ids, size);
+                keywords = k;
+            }
+            return k;
+        }
+
+        DateIndex dates() {
+            DateIndex d = dates;
+            if (d == null) {
+                d = new DateIndex(items, ids, size);
+                dates = d;
+            }
+            return d;
+        }
+
+        SortedViews views() {
+            SortedViews v = views;
+            if (v == null) {
+                v = SortedViews.of(items, ids, size);
+                views = v;
+            }
+            return v;
+        }
+
+        List<Task> sorted(SortKey key) {
+            EnumMap<SortKey, List<Task>> cache = sortedCache;
+            List<Task> hit = cache == null ? null : cache.get(key);
+            if (hit != null) {
+                return hit;
+            }
+            List<Task> result = Collections.unmodifiableList(views().sorted(key));
+            EnumMap<SortKey, List<Task>> next = cache == null ? new EnumMap<>(SortKey.class) : cache.clone();
+            next.put(key, result);
+            sortedCache = next;
+            return result;
         }
     }
 }
@@ -0,0 +1,131 @@
+package kenma;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * The tasks a {@link Kenma} engine works on, addressed by 1-based index as
+ * the commands are. {@link TaskList} holds them as objects and may be shared
+ * between threads; {@link ReadMostlyTaskList} holds millions of them in
+ * primitive columns for one caller at a time.
+ *
+ * <p>
+ * Lists returned by {@link #all()}, {@link #snapshot()} and the queries are
+ * read-only. How long they stay valid once the tasks change is up to the
+ * implementation; each documents it.
+ * </p>
+ */
+public interface TaskStore {
+    /** Read-only view of the tasks. */
+    List<Task> all();
+
+    /** Read-only list of the tasks for iterating in one go. */
+    List<Task> snapshot();
+
+    int size();
+
+    /** 1-based index access with error handling. */
+    Task get(int idx1Based);
+
+    /** Appends {@code t}, rejecting duplicates (semantic equality). */
+    void add(Task t);
+
+    /** Puts {@code t} at the 1-based index, shifting later tasks down; used to undo a removal. */
+    void insert(int idx1Based, Task t);
+
+    Task remove(int idx1Based);
+
+    /**
+     * Removes the tasks at the given 1-based indexes in one pass over the list.
+     *
+     * @param positions ascending, distinct 1-based indexes
+     * @return the removed tasks, in list order
+     */
+    Task[] removeAll(int[] positions);
+
+    /**
+     * Puts tasks back at the given 1-based indexes in one pass, as undoing
+     * {@link #removeAll} does. All or none are inserted.
+     *
+     * @param positions ascending, distinct 1-based indexes in the resulting list
+     * @param tasks     the task for each index
+     */
+    void insertAll(int[] positions, Task[] tasks);
+
+    /**
+     * Marks (or unmarks) the tasks at the given 1-based indexes, skipping
+     * those already in that state.
+     *
+     * @param positions ascending, distinct 1-based indexes
+     * @return the indexes whose status changed
+     */
+    int[] setDoneAll(int[] positions, boolean isDone);
+
+    /** Marks the task at the 1-based index as done and returns it. */
+    Task mark(int idx1Based);
+
+    /** Marks the task at the 1-based index as not done and returns it. */
+    Task unmark(int idx1Based);
+
+    /** Case-insensitive substring search, in list order. */
+    List<Task> find(String keyword);
+
+    /**
+     * Deadlines due and events running on any day from {@code from} to
+     * {@code to} inclusive, in list order.
+     */
+    Hits occurringBetween(LocalDate from, LocalDate to);
+
+    /** All tasks ordered by {@code key}; ties keep list order. */
+    List<Task> sorted(SortKey key);
+
+    /** Orders supported by {@link #sorted(SortKey)}. */
+    enum SortKey {
+        NAME, STATUS, TIME
+    }
+
+    /** Result of {@link #occurringBetween}: 1-based positions and the list they refer to. */
+    final class Hits {
+        private final int[] positions;
+        private final List<Task> list;
+
+        Hits(int[] positions, List<Task> list) {
+            this.positions = positions;
+            this.list = list;
+        }
+
+        public int size() {
+            return positions.length;
+        }
+
+        /** 1-based position of the {@code k}-th hit in the list it was found in. */
+        public int position(int k) {
+            return positions[k];
+        }
+
+        public Task task(int k) {
+            return list.get(positions[k] - 1);
+        }
+
+        /** The 1-based positions; callers must not modify the array. */
+        int[] positions() {
+            return positions;
+        }
+
+        /** The hit tasks, in order, as a view. */
+        List<Task> tasks() {
+            return new AbstractList<>() {
+                @Override
+                public Task get(int k) {
+                    return task(k);
+                }
+
+                @Override
+                public int size() {
+                    return positions.length;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package kenma;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Engines of many tenants (one data file each) under a memory budget. A
+ * tenant's {@link Kenma} is loaded on first use and kept while it is among
+ * the recently used ones; once more than {@code maxEntries} engines are
+ * loaded, or their estimated size exceeds {@code maxBytes}, the least
+ * recently used idle ones are closed (flushing pending writes) and dropped.
+ *
+ * <p>
+ * Engines in use are never evicted, so the budget may be exceeded while
+ * many tenants are busy. Loads run outside the registry lock and each tenant
+ * is loaded at most once at a time; reloading a tenant that is still being
+ * closed waits for the close to finish, so it never reads a stale file.
+ * </p>
+ */
+final class TenantRegistry {
+    /** Rough heap cost of an engine with no tasks: storage, indexes, buffers. */
+    static final long ENGINE_BYTES = 16 << 10;
+    /** Rough heap cost of one task, including its index entries. */
+    static final long TASK_BYTES = 400;
+
+    private final Function<String, Kenma> loader;
+    private final int maxEntries;
+    private final long maxBytes;
+    /** In access order, eldest first. */
+    private final LinkedHashMap<String, Slot> slots = new LinkedHashMap<>(16, 0.75f, true);
+    /** Evicted engines whose close has not finished yet. */
+    private final Map<String, CompletableFuture<Void>> closing = new HashMap<>();
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param loader     opens a tenant's engine; called outside the registry lock
+     * @param maxEntries most engines kept loaded
+     * @param maxBytes   most estimated bytes kept loaded
+     */
+    TenantRegistry(Function<String, Kenma> loader, int maxEntries, long maxBytes) {
+        if (maxEntries < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("Budget must be positive.");
+        }
+        this.loader = loader;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Runs {@code action} on the tenant's engine, loading it first if needed.
+     * The engine cannot be evicted while {@code action} runs.
+     */
+    <T> T with(String tenant, Function<Kenma, T> action) {
+        Slot slot;
+        CompletableFuture<Void> pendingClose = null;
+        synchronized (this) {
+            slot = slots.get(tenant);
+            if (slot == null) {
+                misses++;
+                slot = new Slot();
+                slots.put(tenant, slot);
+                pendingClose = closing.getOrDefault(tenant, CompletableFuture.completedFuture(null));
+            } else {
+                hits++;
+            }
+            slot.users++;
+        }
+        try {
+            if (pendingClose != null) {
+                load(tenant, slot, pendingClose);
+            }
+            return action.apply(slot.engine.join());
+        } finally {
+            release(slot);
+        }
+    }
+
+    private void load(String tenant, Slot slot, CompletableFuture<Void> pendingClose) {
+        try {
+            pendingClose.join();
+            slot.engine.complete(loader.apply(tenant));
+            synchronized (this) {
+                slot.isLoaded = true;
+            }
+        } catch (RuntimeException e) {
+            slot.engine.completeExceptionally(e);
+            synchronized (this) {
+                slots.remove(tenant, slot);
+            }
+            throw e;
+        }
+    }
+
+    private void release(Slot slot) {
+        List<Map.Entry<String, Kenma>> victims;
+        synchronized (this) {
+            slot.users--;
+            if (slot.isLoaded && !slot.isEvicted) {
+                long now = ENGINE_BYTES + slot.engine.join().taskCount() * TASK_BYTES;
+                bytes += now - slot.bytes;
+                slot.bytes = now;
+            }
+            victims = evictOverBudget();
+        }
+        for (Map.Entry<String, Kenma> victim : victims) {
+            close(victim.getKey(), victim.getValue());
+        }
+    }
+
+    /** Unlinks idle engines, eldest first, until back within budget. Caller holds the lock. */
+    private List<Map.Entry<String, Kenma>> evictOverBudget() {
+        List<Map.Entry<String, Kenma>> victims = new ArrayList<>();
+        Iterator<Map.Entry<String, Slot>> it = slots.entrySet().iterator();
+        while ((slots.size() > maxEntries || bytes > maxBytes) && it.hasNext()) {
+            Map.Entry<String, Slot> e = it.next();
+            Slot s = e.getValue();
+            if (s.users > 0 || !s.isLoaded) {
+                continue;
+            }
+            it.remove();
+            s.isEvicted = true;
+            bytes -= s.bytes;
+            evictions++;
+            closing.put(e.getKey(), new CompletableFuture<>());
+            victims.add(Map.entry(e.getKey(), s.engine.join()));
+        }
+        return victims;
+    }
+
+    private void close(String tenant, Kenma engine) {
+        try {
+            engine.close();
+        } catch (RuntimeException e) {
+            System.err.println("[WARN] Closing tenant " + tenant + " failed: " + e.getMessage());
+        } finally {
+            CompletableFuture<Void> done;
+            synchronized (this) {
+                done = closing.remove(tenant);
+            }
+            done.complete(null);
+        }
+    }
+
+    /** Closes every loaded engine. Callers must have stopped using the registry. */
+    void close() {
+        List<Map.Entry<String, Kenma>> all = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<String, Slot> e : slots.entrySet()) {
+                if (e.getValue().isLoaded) {
+                    closing.put(e.getKey(), new CompletableFuture<>());
+                    all.add(Map.entry(e.getKey(), e.getValue().engine.join()));
+                }
+            }
+            slots.clear();
+            bytes = 0;
+        }
+        for (Map.Entry<String, Kenma> e : all) {
+            close(e.getKey(), e.getValue());
+        }
+    }
+
+    synchronized int size() {
+        return slots.size();
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    synchronized long hits() {
+        return hits;
+    }
+
+    synchronized long misses() {
+        return misses;
+    }
+
+    synchronized long evictions() {
+        return evictions;
+    }
+
+    /** A tenant's engine, loaded once by whichever caller created the slot. */
+    private static final class Slot {
+        final CompletableFuture<Kenma> engine = new CompletableFuture<>();
+        /** Estimated heap cost counted in {@link #bytes}; guarded by the registry. */
+        long bytes;
+        /** Callers currently inside {@link #with}; guarded by the registry. */
+        int users;
+        /** Whether {@link #engine} holds a loaded engine; guarded by the registry. */
+        boolean isLoaded;
+        /** Whether the slot has left the registry; guarded by the registry. */
+        boolean isEvicted;
+    }
+}
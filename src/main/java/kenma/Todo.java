@@ -8,7 +8,7 @@ public class Todo extends Task {
     }
 
     @Override
-    public String toString() {
-        return "[" + getType().getSymbol() + "]" + super.toString();
+    protected String render(boolean isDone) {
+        return "[" + getType().getSymbol() + "]" + super.render(isDone);
     }
 }
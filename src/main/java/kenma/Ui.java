@@ -1,23 +1,105 @@
 package kenma;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.List;
 import java.util.Scanner;
 
 /**
  * Handles user interaction by reading commands and printing messages to the
  * console.
+ *
+ * <p>
+ * Messages are rendered into a reused {@link StringBuilder} and written through
+ * one large {@link BufferedWriter}, so a long list costs a few bulk writes
+ * rather than a locked {@code println} per line. In auto-flush mode (the
+ * default) output is flushed after every message; otherwise only when the
+ * buffer fills and on {@link #flush()}.
+ * </p>
  */
 public class Ui {
     private static final String LINE = "____________________________________________________________";
+    private static final String NL = System.lineSeparator();
+    private static final int BUFFER_CHARS = 1 << 16;
+    /** Rendered text is handed to the writer whenever it grows past this. */
+    private static final int DRAIN_AT = 8192;
+
     private final Scanner sc = new Scanner(System.in);
+    private final Writer out;
+    private final boolean isAutoFlush;
+    private final StringBuilder buf = new StringBuilder(DRAIN_AT + 256);
+    private final char[] chunk = new char[DRAIN_AT + 256];
+
+    /** Prints to {@code System.out}, flushing after every message. */
+    public Ui() {
+        this(true);
+    }
+
+    /**
+     * Prints to {@code System.out}.
+     *
+     * @param isAutoFlush whether to flush after every message; batch runs pass
+     *                    {@code false} and call {@link #flush()} at the end
+     */
+    public Ui(boolean isAutoFlush) {
+        this(new BufferedWriter(new OutputStreamWriter(System.out), BUFFER_CHARS), isAutoFlush);
+    }
+
+    /**
+     * Prints to {@code out}.
+     *
+     * @param out         destination of all messages
+     * @param isAutoFlush whether to flush after every message
+     */
+    public Ui(Writer out, boolean isAutoFlush) {
+        this.out = out;
+        this.isAutoFlush = isAutoFlush;
+    }
 
     /** Prints a boxed block with each line prefixed by a space. */
     public void showMessage(String... lines) {
-        System.out.println(LINE);
+        line(LINE);
         for (String s : lines) {
-            System.out.println(" " + s);
+            buf.append(' ');
+            line(s);
+        }
+        line(LINE);
+        endMessage();
+    }
+
+    /** Prints preformatted text as is. */
+    public void showText(String text) {
+        line(text);
+        endMessage();
+    }
+
+    /**
+     * Prints a reply: its text, then each row of a list reply as it is
+     * rendered, so large results reach the console in chunks.
+     */
+    public void showReply(Reply reply) {
+        line(reply.getText());
+        if (reply.hasTasks() && reply.getTasks().isEmpty()) {
+            line(Reply.NO_TASKS);
+        }
+        List<Task> tasks = reply.hasTasks() ? reply.getTasks() : List.of();
+        for (int i = 0; i < tasks.size(); i++) {
+            Reply.appendRow(buf, reply.numberAt(i), tasks.get(i));
+            line("");
+        }
+        endMessage();
+    }
+
+    /** Pushes any buffered output to its destination. */
+    public void flush() {
+        drain();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            // Like PrintStream, console write errors are not fatal.
         }
-        System.out.println(LINE);
     }
 
     /**
@@ -26,11 +108,12 @@ public class Ui {
      * @param logo ASCII logo to print
      */
     public void showWelcome(String logo) {
-        System.out.println(logo);
-        System.out.println(LINE);
-        System.out.println(" Hello! I'm Kenma");
-        System.out.println(" What can I do for you?");
-        System.out.println(LINE);
+        line(logo);
+        line(LINE);
+        line(" Hello! I'm Kenma");
+        line(" What can I do for you?");
+        line(LINE);
+        endMessage();
     }
 
     /**
@@ -39,6 +122,7 @@ public class Ui {
      * @return trimmed input string, empty string if null, or {@code null} if EOF
      */
     public String readCommand() {
+        flush();
         if (!sc.hasNextLine()) {
             return null;
         }
@@ -48,9 +132,10 @@ public class Ui {
 
     /** Displays the goodbye message. */
     public void showBye() {
-        System.out.println(LINE);
-        System.out.println(" Bye. Hope to see you again soon!");
-        System.out.println(LINE);
+        line(LINE);
+        line(" Bye. Hope to see you again soon!");
+        line(LINE);
+        endMessage();
     }
 
     /**
@@ -59,16 +144,15 @@ public class Ui {
      * @param tasks tasks to display
      */
     public void showList(List<Task> tasks) {
-        System.out.println(LINE);
+        line(LINE);
         if (tasks.isEmpty()) {
-            System.out.println(" No tasks in your list.");
+            line(" No tasks in your list.");
         } else {
-            System.out.println(" Here are the tasks in your list:");
-            for (int i = 0; i < tasks.size(); i++) {
-                System.out.printf(" %d.%s%n", i + 1, tasks.get(i));
-            }
+            line(" Here are the tasks in your list:");
+            numbered(tasks);
         }
-        System.out.println(LINE);
+        line(LINE);
+        endMessage();
     }
 
     /**
@@ -78,11 +162,13 @@ public class Ui {
      * @param count total number of tasks after addition
      */
     public void showAdded(Task t, int count) {
-        System.out.println(LINE);
-        System.out.println(" Got it. I've added this task:");
-        System.out.println("   " + t);
-        System.out.println(" Now you have " + count + " tasks in the list.");
-        System.out.println(LINE);
+        line(LINE);
+        line(" Got it. I've added this task:");
+        task(t);
+        buf.append(" Now you have ").append(count);
+        line(" tasks in the list.");
+        line(LINE);
+        endMessage();
     }
 
     /**
@@ -91,10 +177,11 @@ public class Ui {
      * @param t task that was marked
      */
     public void showMarked(Task t) {
-        System.out.println(LINE);
-        System.out.println(" Nice! I've marked this task as done:");
-        System.out.println("   " + t);
-        System.out.println(LINE);
+        line(LINE);
+        line(" Nice! I've marked this task as done:");
+        task(t);
+        line(LINE);
+        endMessage();
     }
 
     /**
@@ -103,10 +190,11 @@ public class Ui {
      * @param t task that was unmarked
      */
     public void showUnmarked(Task t) {
-        System.out.println(LINE);
-        System.out.println(" OK, I've marked this task as not done yet:");
-        System.out.println("   " + t);
-        System.out.println(LINE);
+        line(LINE);
+        line(" OK, I've marked this task as not done yet:");
+        task(t);
+        line(LINE);
+        endMessage();
     }
 
     /**
@@ -116,11 +204,13 @@ public class Ui {
      * @param count total number of tasks after deletion
      */
     public void showDeleted(Task t, int count) {
-        System.out.println(LINE);
-        System.out.println(" Noted. I've removed this task:");
-        System.out.println("   " + t);
-        System.out.println(" Now you have " + count + " tasks in the list.");
-        System.out.println(LINE);
+        line(LINE);
+        line(" Noted. I've removed this task:");
+        task(t);
+        buf.append(" Now you have ").append(count);
+        line(" tasks in the list.");
+        line(LINE);
+        endMessage();
     }
 
     /**
@@ -139,15 +229,56 @@ public class Ui {
      * @param keyword original keyword
      */
     public void showFound(List<Task> matches, String keyword) {
-        System.out.println(LINE);
+        line(LINE);
         if (matches.isEmpty()) {
-            System.out.println(" No matching tasks for: \"" + keyword + "\"");
+            buf.append(" No matching tasks for: \"").append(keyword);
+            line("\"");
         } else {
-            System.out.println(" Here are the matching tasks in your list:");
-            for (int i = 0; i < matches.size(); i++) {
-                System.out.printf(" %d.%s%n", i + 1, matches.get(i));
+            line(" Here are the matching tasks in your list:");
+            numbered(matches);
+        }
+        line(LINE);
+        endMessage();
+    }
+
+    /** Renders {@code " 1.<task>"} lines without {@code String.format}. */
+    private void numbered(List<Task> tasks) {
+        for (int i = 0; i < tasks.size(); i++) {
+            Reply.appendRow(buf, i + 1, tasks.get(i));
+            line("");
+        }
+    }
+
+    private void task(Task t) {
+        buf.append("   ").append(t);
+        line("");
+    }
+
+    /** Appends {@code s} and a line break, draining the buffer once it is large. */
+    private void line(String s) {
+        buf.append(s).append(NL);
+        if (buf.length() >= DRAIN_AT) {
+            drain();
+        }
+    }
+
+    private void endMessage() {
+        if (isAutoFlush) {
+            flush();
+        }
+    }
+
+    /** Moves the rendered text into the writer in chunks, reusing one char array. */
+    private void drain() {
+        try {
+            for (int from = 0; from < buf.length(); from += chunk.length) {
+                int to = Math.min(buf.length(), from + chunk.length);
+                buf.getChars(from, to, chunk, 0);
+                out.write(chunk, 0, to - from);
             }
+        } catch (IOException e) {
+            // Like PrintStream, console write errors are not fatal.
         }
-        System.out.println(LINE);
+        buf.setLength(0);
     }
 }
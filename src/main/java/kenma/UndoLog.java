@@ -0,0 +1,99 @@
+package kenma;
+
+import java.util.ArrayDeque;
+
+/**
+ * Bounded undo and redo history of list mutations. Each step records only
+ * what is needed to invert it, a kind and the 1-based positions and tasks it
+ * touched, so a step costs memory in proportion to the tasks it changed (one,
+ * except for bulk commands) however long the list is. The oldest steps are
+ * forgotten past {@code capacity}.
+ *
+ * <p>
+ * Positions are valid because steps are undone in reverse order: when a step
+ * is undone, the list is back in the state right after it was done. Every
+ * mutation must therefore be recorded here. Not thread-safe; {@link Kenma}
+ * guards it with its write lock.
+ * </p>
+ */
+final class UndoLog {
+    /** What a step did. */
+    enum Kind {
+        ADD, DELETE, MARK, UNMARK
+    }
+
+    /** One recorded mutation of one or more tasks. */
+    static final class Step {
+        final Kind kind;
+        /**
+         * Ascending 1-based positions the tasks occupy while present in the
+         * list (after an add or mark, before a delete).
+         */
+        final int[] positions;
+        /** The task at each position. */
+        final Task[] tasks;
+
+        Step(Kind kind, int[] positions, Task[] tasks) {
+            this.kind = kind;
+            this.positions = positions;
+            this.tasks = tasks;
+        }
+    }
+
+    private final int capacity;
+    private final ArrayDeque<Step> undo = new ArrayDeque<>();
+    private final ArrayDeque<Step> redo = new ArrayDeque<>();
+
+    UndoLog(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Undo capacity must be positive.");
+        }
+        this.capacity = capacity;
+    }
+
+    /** Records a new mutation; anything undone before it can no longer be redone. */
+    void record(Kind kind, int position, Task task) {
+        record(kind, new int[] { position }, new Task[] { task });
+    }
+
+    /** Records a bulk mutation; see {@link #record(Kind, int, Task)}. */
+    void record(Kind kind, int[] positions, Task[] tasks) {
+        redo.clear();
+        push(undo, new Step(kind, positions, tasks));
+    }
+
+    /** The step {@link #undone()} would move, or {@code null} if there is none. */
+    Step nextUndo() {
+        return undo.peekLast();
+    }
+
+    /** The step {@link #redone()} would move, or {@code null} if there is none. */
+    Step nextRedo() {
+        return redo.peekLast();
+    }
+
+    /** Moves the latest step to the redo history once its inverse has been applied. */
+    void undone() {
+        push(redo, undo.removeLast());
+    }
+
+    /** Moves the latest undone step back once it has been applied again. */
+    void redone() {
+        push(undo, redo.removeLast());
+    }
+
+    int undoSize() {
+        return undo.size();
+    }
+
+    int redoSize() {
+        return redo.size();
+    }
+
+    private void push(ArrayDeque<Step> steps, Step s) {
+        steps.addLast(s);
+        if (steps.size() > capacity) {
+            steps.removeFirst();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package kenma;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind persistence: callers only mark the list dirty, and a single
+ * background thread rewrites the file at most once per window, so a burst of
+ * mutations costs one {@link Storage#save(List)}.
+ *
+ * <p>
+ * The snapshot supplier runs on the writer thread and must return a copy that
+ * is safe to read while the caller keeps mutating its list.
+ * </p>
+ */
+public class WriteBehindSaver implements AutoCloseable {
+    private final Storage storage;
+    private final Supplier<List<Task>> snapshot;
+    private final long windowMillis;
+    private final AtomicBoolean isDirty = new AtomicBoolean(false);
+    private final ScheduledExecutorService writer;
+
+    /**
+     * Creates a saver.
+     *
+     * @param storage  where to save
+     * @param snapshot returns a stable copy of the current tasks
+     * @param window   how long to wait after the first mutation of a burst
+     */
+    public WriteBehindSaver(Storage storage, Supplier<List<Task>> snapshot, Duration window) {
+        if (storage == null || snapshot == null || window == null || window.isNegative()) {
+            throw new IllegalArgumentException("Storage, snapshot and a non-negative window are required.");
+        }
+        this.storage = storage;
+        this.snapshot = snapshot;
+        this.windowMillis = window.toMillis();
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "kenma-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Records that the list changed; schedules a save unless one is already pending. */
+    public void markDirty() {
+        if (isDirty.compareAndSet(false, true)) {
+            try {
+                writer.schedule(this::retryIfDirty, windowMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Writer already shut down: save inline and let the caller see a failure.
+                saveIfDirty();
+            }
+        }
+    }
+
+    /**
+     * Saves now if anything is pending, and waits until it is on disk.
+     *
+     * @throws DukeException if the save fails; the changes stay pending
+     */
+    public void flush() {
+        try {
+            writer.submit(this::saveIfDirty).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DukeException("Interrupted while flushing tasks.", e);
+        } catch (ExecutionException e) {
+            scheduleRetry();
+            throw new DukeException("Failed to flush tasks: " + e.getCause().getMessage(), e.getCause());
+        } catch (RejectedExecutionException e) {
+            saveIfDirty();
+        }
+    }
+
+    /**
+     * Flushes and stops the writer thread, dropping any scheduled retry.
+     *
+     * @throws DukeException if the final save fails
+     */
+    @Override
+    public void close() {
+        try {
+            flush();
+        } finally {
+            writer.shutdownNow();
+        }
+    }
+
+    /** Background save: a failure is reported and retried one window later. */
+    private void retryIfDirty() {
+        try {
+            saveIfDirty();
+        } catch (DukeException e) {
+            System.err.println("[WARN] Background save failed, will retry: " + e.getMessage());
+            scheduleRetry();
+        }
+    }
+
+    /** Schedules another background save for changes a failed save left pending. */
+    private void scheduleRetry() {
+        try {
+            writer.schedule(this::retryIfDirty, windowMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Writer shut down: the changes stay pending for the next flush.
+        }
+    }
+
+    /** Saves if anything is pending; on failure the changes stay pending and the error is rethrown. */
+    private void saveIfDirty() {
+        if (!isDirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            storage.save(snapshot.get());
+        } catch (RuntimeException e) {
+            isDirty.set(true);
+            throw e;
+        }
+    }
+}
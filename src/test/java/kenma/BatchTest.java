@@ -0,0 +1,63 @@
+package kenma;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class BatchTest {
+
+    @TempDir
+    Path dir;
+
+    /** Counts whole-file saves. */
+    private static final class CountingStorage extends Storage {
+        int saves;
+
+        CountingStorage(String path) {
+            super(path);
+        }
+
+        @Override
+        public synchronized void save(List<Task> tasks) {
+            saves++;
+            super.save(tasks);
+        }
+    }
+
+    @Test
+    void runBatch_savesEveryCheckpointAndOnceAtTheEnd_andStopsAtBye() throws Exception {
+        Path script = dir.resolve("script.txt");
+        Files.writeString(script, String.join("\n",
+                "todo a", "todo b", "todo c", "", "todo d", "mark 2", "list", "todo e", "delete 1",
+                "bye", "todo never"), StandardCharsets.UTF_8);
+        String path = dir.resolve("kenma.txt").toString();
+        CountingStorage storage = new CountingStorage(path);
+
+        StringWriter transcript = new StringWriter();
+        new Kenma(storage).runBatch(script, 3, transcript);
+
+        // 7 changes: checkpoints after the 3rd and 6th, then the final one.
+        assertEquals(3, storage.saves);
+        List<String> lines = Files.readAllLines(Path.of(path), StandardCharsets.UTF_8);
+        assertEquals(List.of("T | 1 | b", "T | 0 | c", "T | 0 | d", "T | 0 | e"), lines);
+        assertTrue(transcript.toString().contains("Got it. I've added this task:"));
+        assertFalse(transcript.toString().contains("never"));
+    }
+
+    @Test
+    void runBatch_withoutCheckpoint_savesOnce() throws Exception {
+        Path script = dir.resolve("script.txt");
+        Files.writeString(script, "todo a\ntodo b\nmark 1\n", StandardCharsets.UTF_8);
+        CountingStorage storage = new CountingStorage(dir.resolve("kenma.txt").toString());
+
+        new Kenma(storage).runBatch(script, 0, new StringWriter());
+
+        assertEquals(1, storage.saves);
+        assertEquals(2, storage.load().size());
+    }
+}
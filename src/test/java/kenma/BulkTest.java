@@ -0,0 +1,55 @@
+package kenma;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class BulkTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void bulkCommands_writeOneRecordEach_andUndoAsOneStep() throws Exception {
+        String path = dir.resolve("kenma.txt").toString();
+        Kenma engine = new Kenma(new Storage(path, true));
+        for (int i = 1; i <= 10; i++) {
+            engine.getReply("todo task " + i);
+        }
+        long before = Files.readAllLines(Path.of(path + ".journal")).size();
+        assertEquals("Nice! I've marked 3 tasks as done.", engine.getResponse("mark 1,4,9"));
+        assertTrue(engine.getResponse("delete 6-8").startsWith("Noted. I've removed 3 tasks."));
+        assertTrue(engine.getResponse("delete where done").startsWith("Noted. I've removed 3 tasks."));
+        assertEquals(before + 3, Files.readAllLines(Path.of(path + ".journal")).size());
+
+        assertEquals("Undid delete of 3 tasks.", engine.getResponse("undo"));
+        assertEquals("Nice! I've marked 1 task as done.", engine.getResponse("mark 1,2"));
+        assertTrue(engine.getResponse("delete 3-3").startsWith("Noted. I've removed 1 task.\n"));
+        assertEquals("Undid delete:\n[T][ ] task 3", engine.getResponse("undo"));
+        assertEquals("Undid mark:\n[T][ ] task 2", engine.getResponse("undo"));
+        engine.close();
+
+        List<Task> loaded = new Storage(path, true).load();
+        assertEquals(7, loaded.size());
+        assertEquals("task 1", loaded.get(0).getDescription());
+        assertTrue(loaded.get(0).isDone());
+        assertEquals("task 9", loaded.get(5).getDescription());
+        assertTrue(loaded.get(5).isDone());
+        assertFalse(loaded.get(1).isDone());
+    }
+
+    @Test
+    void selection_parsesRangesAndFormatsThemBack() {
+        int[] positions = Selection.parse("9-12, 1,4,10", 20);
+        assertArrayEquals(new int[] { 1, 4, 9, 10, 11, 12 }, positions);
+        assertEquals("1,4,9-12", Selection.format(positions));
+        assertThrows(DukeException.class, () -> Selection.parse("3-50", 20));
+        assertThrows(DukeException.class, () -> Selection.parse("5-2", 20));
+        assertThrows(DukeException.class, () -> Selection.parse("1,", 20));
+        assertThrows(DukeException.class, () -> Selection.parse(",1", 20));
+        assertThrows(DukeException.class, () -> Selection.parse("1,,2", 20));
+    }
+}
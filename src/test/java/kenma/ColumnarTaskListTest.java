@@ -0,0 +1,119 @@
+package kenma;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ColumnarTaskListTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void matchesTaskListThroughAddsRemovesAndMarks() {
+        Random rnd = new Random(42);
+        List<Task> expected = new ArrayList<>();
+        ColumnarTaskList columns = new ColumnarTaskList();
+        for (int i = 0; i < 3000; i++) {
+            int op = rnd.nextInt(10);
+            if (op < 6 || expected.isEmpty()) {
+                Task t = randomTask(rnd, i);
+                expected.add(t);
+                columns.add(t);
+            } else if (op < 8) {
+                int k = rnd.nextInt(expected.size());
+                expected.remove(k);
+                columns.remove(k);
+            } else {
+                int k = rnd.nextInt(expected.size());
+                Task t = expected.get(k);
+                if (t.isDone()) {
+                    t.markAsNotDone();
+                    columns.unmark(k + 1);
+                } else {
+                    t.markAsDone();
+                    columns.mark(k + 1);
+                }
+            }
+        }
+        assertEquals(expected, columns);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), columns.get(i).toString());
+        }
+
+        TaskList reference = new TaskList(expected);
+        for (TaskList.SortKey key : TaskList.SortKey.values()) {
+            assertEquals(reference.sorted(key), columns.sorted(key));
+        }
+        assertEquals(reference.find("ook 1"), columns.find("OOK 1"));
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        TaskList.Hits hits = reference.occurringBetween(from, from.plusDays(9));
+        int[] positions = columns.occurringBetween(from, from.plusDays(9));
+        assertEquals(hits.size(), positions.length);
+        for (int k = 0; k < positions.length; k++) {
+            assertEquals(hits.position(k), positions[k]);
+        }
+    }
+
+    @Test
+    void columnarEngine_answersLikeTheDefaultOne() throws Exception {
+        String[] script = {
+            "todo read book", "deadline return book /by 2024-03-05", "event fair /from 2024-03-04 0900 /to 2024-03-06",
+            "todo water plants", "todo read book", "deadline essay /by 2024-03-06 1800", "todo call mum",
+            "mark 2", "mark 1,3-4", "unmark 3", "list", "find BOOK", "on 2024-03-05", "on 2024-03-01 2024-03-06",
+            "sort by name", "sort by status", "sort by time", "delete 2-3,6", "list", "undo", "list",
+            "delete where done", "undo", "redo", "delete 9", "list"
+        };
+        Path plain = dir.resolve("plain.txt");
+        Path columnar = dir.resolve("columnar.txt");
+        Kenma expected = new Kenma(new Storage(plain.toString()));
+        Kenma actual = new Kenma(new Storage(columnar.toString()), true);
+        for (String command : script) {
+            assertEquals(expected.getResponse(command), actual.getResponse(command), command);
+        }
+        assertEquals(Files.readAllLines(plain), Files.readAllLines(columnar));
+
+        Kenma reloaded = new Kenma(new Storage(columnar.toString()), true);
+        assertEquals(expected.getResponse("list"), reloaded.getResponse("list"));
+    }
+
+    @Test
+    void loadInto_appliesJournaledMarks() {
+        String path = dir.resolve("kenma.txt").toString();
+        Storage storage = new Storage(path, true);
+        storage.save(List.of(new Todo("read book"), new Deadline("return book", "next week")));
+        storage.logMark(2);
+        storage.close();
+
+        ColumnarTaskList loaded = new Storage(path, true).loadInto(new ColumnarTaskList());
+        assertEquals(2, loaded.size());
+        assertFalse(loaded.isDone(0));
+        assertTrue(loaded.get(1).isDone());
+        assertEquals("next week", ((Deadline) loaded.get(1)).getBy());
+    }
+
+    private static Task randomTask(Random rnd, int i) {
+        String desc = (rnd.nextBoolean() ? "Book " : "café ") + rnd.nextInt(50);
+        LocalDate day = LocalDate.of(2024, 2, 20).plusDays(rnd.nextInt(30));
+        switch (rnd.nextInt(4)) {
+            case 0: {
+                return new Deadline(desc, day.toString());
+            }
+            case 1: {
+                return new Deadline(desc, rnd.nextBoolean() ? day + " 1830" : "next week " + i);
+            }
+            case 2: {
+                return new Event(desc, day + " 0900", day.plusDays(1 + rnd.nextInt(3)).toString());
+            }
+            default: {
+                return new Todo(desc + " #" + i);
+            }
+        }
+    }
+}
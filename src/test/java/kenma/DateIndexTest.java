@@ -0,0 +1,124 @@
+package kenma;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class DateIndexTest {
+    /** {@code day(n)} is the n-th of October 2025. */
+    private static final LocalDate BASE = LocalDate.of(2025, 9, 30);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void on_matchesEveryDayOfAnEventSpan_andRangesAreInclusive() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Event("trip", "2025-10-01 1400", "2025-10-04 1000"));
+        tasks.add(new Deadline("essay", "2025-10-06"));
+        tasks.add(new Todo("read book"));
+        tasks.add(new Deadline("report", "2025-10-07 2359"));
+
+        assertArrayEquals(new int[] { 1 }, tasks.occurringBetween(day(2), day(2)).positions());
+        assertArrayEquals(new int[] { 1 }, tasks.occurringBetween(day(4), day(4)).positions());
+        assertArrayEquals(new int[] {}, tasks.occurringBetween(day(5), day(5)).positions());
+        assertArrayEquals(new int[] {}, tasks.occurringBetween(day(0), day(0)).positions());
+
+        assertArrayEquals(new int[] { 1, 2 }, tasks.occurringBetween(day(4), day(6)).positions());
+        assertArrayEquals(new int[] { 2, 4 }, tasks.occurringBetween(day(6), day(7)).positions());
+        assertThrows(DukeException.class, () -> tasks.occurringBetween(day(7), day(6)));
+
+        Kenma engine = new Kenma(dir.resolve("kenma.txt").toString());
+        engine.getReply("event trip /from 2025-10-01 1400 /to 2025-10-04 1000");
+        engine.getReply("deadline essay /by 2025-10-06");
+        Reply reply = engine.getReply("on 2025-10-03 2025-10-06");
+        assertEquals("Tasks on 2025-10-03 to 2025-10-06:", reply.getText());
+        assertEquals(2, reply.getTasks().size());
+    }
+
+    @Test
+    void occurringBetween_matchesNaiveScanInListOrderThroughRemovesAndInserts() {
+        Random rnd = new Random(7);
+        TaskList tasks = new TaskList();
+        List<Task> expected = new ArrayList<>();
+        for (int step = 0; step < 2_000; step++) {
+            int op = rnd.nextInt(10);
+            if (op < 5 || expected.isEmpty()) {
+                Task t = randomTask(rnd, step);
+                tasks.add(t);
+                expected.add(t);
+            } else if (op < 8) {
+                int idx = 1 + rnd.nextInt(expected.size());
+                assertSame(expected.remove(idx - 1), tasks.remove(idx));
+            } else {
+                Task t = randomTask(rnd, step);
+                int idx = 1 + rnd.nextInt(expected.size() + 1);
+                tasks.insert(idx, t);
+                expected.add(idx - 1, t);
+            }
+            if (step % 25 == 0) {
+                LocalDate from = day(rnd.nextInt(40));
+                LocalDate to = from.plusDays(rnd.nextInt(5));
+                assertArrayEquals(scan(expected, from, to), tasks.occurringBetween(from, to).positions());
+            }
+        }
+    }
+
+    @Test
+    void occurringBetween_ignoresARemovedTaskWhoseIdWasReused() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("read book"));
+        tasks.add(new Deadline("essay", "2025-10-06"));
+        tasks.add(new Event("trip", "2025-10-05 0900", "2025-10-07 1700"));
+        assertArrayEquals(new int[] { 2, 3 }, tasks.occurringBetween(day(6), day(6)).positions());
+
+        // the insert takes the midpoint id between its neighbours, the one the essay held
+        tasks.remove(2);
+        tasks.insert(2, new Todo("return book"));
+        assertArrayEquals(new int[] { 3 }, tasks.occurringBetween(day(6), day(6)).positions());
+        tasks.removeAll(new int[] { 2, 3 });
+        tasks.insertAll(new int[] { 2, 3 }, new Task[] { new Todo("essay"), new Deadline("trip", "2025-10-06") });
+        assertArrayEquals(new int[] { 3 }, tasks.occurringBetween(day(6), day(6)).positions());
+    }
+
+    private static Task randomTask(Random rnd, int i) {
+        LocalDate start = day(rnd.nextInt(40));
+        switch (rnd.nextInt(3)) {
+            case 0: {
+                return new Todo("todo " + i);
+            }
+            case 1: {
+                return new Deadline("deadline " + i, rnd.nextBoolean() ? start.toString() : start + " 1830");
+            }
+            default: {
+                return new Event("event " + i, start + " 0900", start.plusDays(rnd.nextInt(6)) + " 1700");
+            }
+        }
+    }
+
+    /** Ascending 1-based positions of the tasks occurring on any day of {@code from..to}. */
+    private static int[] scan(List<Task> tasks, LocalDate from, LocalDate to) {
+        IntList out = new IntList();
+        for (int i = 0; i < tasks.size(); i++) {
+            for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+                Task t = tasks.get(i);
+                boolean isHit = (t instanceof Deadline && ((Deadline) t).occursOn(d))
+                        || (t instanceof Event && ((Event) t).occursOn(d));
+                if (isHit) {
+                    out.add(i + 1);
+                    break;
+                }
+            }
+        }
+        return out.toSortedArray();
+    }
+
+    private static LocalDate day(int offset) {
+        return BASE.plusDays(offset);
+    }
+}
@@ -0,0 +1,50 @@
+package kenma;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.Temporal;
+
+public class DateParserTest {
+
+    @Test
+    void parse_acceptsDateAndDateTimeShapes() {
+        assertEquals(LocalDate.of(2019, 12, 2), DateParser.parse("2019-12-02"));
+        assertEquals(LocalDate.of(2019, 12, 2), DateParser.parse("  2019-12-02 "));
+        assertEquals(LocalDateTime.of(2019, 12, 2, 18, 0), DateParser.parse("2019-12-02 1800"));
+        assertEquals(LocalDateTime.of(2019, 12, 3, 0, 0), DateParser.parse("2019-12-02 2400"));
+        assertEquals(LocalDate.of(2019, 2, 28), DateParser.parse("2019-02-31"));
+        assertEquals(LocalDate.of(2020, 2, 29), DateParser.parse("2020-02-30"));
+        assertEquals(LocalDateTime.of(2019, 12, 2, 18, 30), DateParser.parse("2019-12-02T18:30", true));
+        assertNull(DateParser.parse("2019-12-02T18:30", false));
+        assertEquals(LocalDate.of(2019, 12, 2), DateParser.parseDate("2019-12-02"));
+        assertNull(DateParser.parseDate("2019-12-02 1800"));
+    }
+
+    @Test
+    void parse_rejectsNearMissesOtherLayoutsAndWrongLengths() {
+        String[] rejected = {
+            "2019-13-01", "2019-00-10", "2019-12-32", "2019-12-00", "0000-01-01",
+            "2019-12-02 2460", "2019-12-02 2401", "2019-12-02 1860", "2019-12-02 18:00",
+            "2/12/2019", "02/12/2019", "2/12/2019 1800", "12/2/2019",
+            "2019-12-2", "2019-1-02", "19-12-02", "2019-12-02 180", "2019-12-02 18000", "20191202",
+            "2019/12/02", "2019-12-0x", "２０１９-12-02", "", "next week"
+        };
+        for (String s : rejected) {
+            assertNull(DateParser.parse(s, true), s);
+        }
+    }
+
+    @Test
+    void parse_ofRecordBytes_agreesWithStrings() {
+        String[] samples = { "2019-12-02", "2019-12-02 1800", "2019-12-02 2400", "2019-13-01", "2019-12-02 2460",
+            "2/12/2019", "2019-12-02T18:30", "+10000-01-01" };
+        for (String s : samples) {
+            byte[] b = ("x|" + s + "|y").getBytes(StandardCharsets.UTF_8);
+            Temporal fromBytes = DateParser.parse(b, 2, 2 + s.length());
+            assertEquals(DateParser.parse(s, false), fromBytes, s);
+        }
+    }
+}
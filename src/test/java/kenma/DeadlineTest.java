@@ -21,4 +21,15 @@ public class DeadlineTest {
         assertFalse(d.occursOn(LocalDate.of(2019, 12, 1)));
         assertTrue(d.toString().contains("(by: Dec 2 2019 18:00)"));
     }
+
+    @Test
+    void toString_isCachedAndFollowsMarks() {
+        Deadline d = new Deadline("return book", "2019-12-02 1800");
+        String line = d.toString();
+        assertSame(line, d.toString());
+        d.markAsDone();
+        assertEquals("[D][X] return book (by: Dec 2 2019 18:00)", d.toString());
+        d.markAsNotDone();
+        assertEquals(line, d.toString());
+    }
 }
@@ -0,0 +1,57 @@
+package kenma;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class KeywordIndexTest {
+    private static final String[] WORDS = {
+        "Read", "book", "CAFÉ", "résumé", "naïve", "Straße", "ZÜRICH", "İstanbul", "日本語", "ab", "abab"
+    };
+    private static final String[] NEEDLES = {
+        "a", "É", "é", "ß", "日", "ab", "BO", "ss", "çé", "book", "CAFÉ", "umé", "istanbul", "i̇st", "abab", "語 #1"
+    };
+
+    @Test
+    void find_matchesLowerCaseContainsScanThroughAddsRemovesAndInserts() {
+        Random rnd = new Random(42);
+        TaskList tasks = new TaskList();
+        List<Task> expected = new ArrayList<>();
+        int made = 0;
+        for (int step = 0; step < 3_000; step++) {
+            int op = rnd.nextInt(10);
+            if (op < 5 || expected.isEmpty()) {
+                Task t = new Todo(WORDS[rnd.nextInt(WORDS.length)] + " " + WORDS[rnd.nextInt(WORDS.length)]
+                        + " #" + made++);
+                tasks.add(t);
+                expected.add(t);
+            } else if (op < 8) {
+                int idx = 1 + rnd.nextInt(expected.size());
+                assertSame(expected.remove(idx - 1), tasks.remove(idx));
+            } else {
+                Task t = new Todo(WORDS[rnd.nextInt(WORDS.length)] + " #" + made++);
+                int idx = 1 + rnd.nextInt(expected.size() + 1);
+                tasks.insert(idx, t);
+                expected.add(idx - 1, t);
+            }
+            if (step % 50 == 0) {
+                for (String needle : NEEDLES) {
+                    assertEquals(scan(expected, needle), tasks.find(needle), "find " + needle);
+                }
+            }
+        }
+    }
+
+    /** The linear search {@code find} replaced. */
+    private static List<Task> scan(List<Task> tasks, String keyword) {
+        String needle = keyword.toLowerCase();
+        return tasks.stream()
+                .filter(t -> {
+                    String d = t.getDescription();
+                    return d != null && d.toLowerCase().contains(needle);
+                })
+                .toList();
+    }
+}
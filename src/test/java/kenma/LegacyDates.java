@@ -0,0 +1,30 @@
+package kenma;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.Temporal;
+
+/**
+ * The original date parsing of {@code Deadline} and {@code Event}: a new
+ * formatter per attempt and an exception per failed one. Kept as a baseline
+ * for {@link DateParser}.
+ */
+final class LegacyDates {
+    private LegacyDates() {
+    }
+
+    static Temporal parse(String s) {
+        String t = s.trim();
+        try {
+            return LocalDateTime.parse(t, DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
+        } catch (DateTimeParseException ignored) {
+        }
+        try {
+            return LocalDate.parse(t, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        } catch (DateTimeParseException ignored) {
+        }
+        return null;
+    }
+}
@@ -0,0 +1,54 @@
+package kenma;
+
+import java.util.Arrays;
+
+/**
+ * The original split/stream based record decoder, kept as the reference
+ * {@link RecordDecoderTest} checks {@link RecordDecoder} against and as a
+ * benchmark baseline for the storage read path. Dates go through
+ * {@link LegacyDates}, as the task constructors used to do.
+ */
+final class LegacyDecoder {
+    private LegacyDecoder() {
+    }
+
+    static Task decode(String line) {
+        String[] p = Arrays.stream(line.split("\\|"))
+                .map(String::trim)
+                .toArray(String[]::new);
+        if (p.length < 3) {
+            return null;
+        }
+        String type = p[0];
+        boolean isDone = "1".equals(p[1]);
+        String desc = p[2];
+        try {
+            Task t;
+            switch (type) {
+                case "T":
+                    t = new Todo(desc);
+                    break;
+                case "D":
+                    if (p.length < 4) {
+                        return null;
+                    }
+                    t = new Deadline(desc, p[3], LegacyDates.parse(p[3]));
+                    break;
+                case "E":
+                    if (p.length < 5) {
+                        return null;
+                    }
+                    t = new Event(desc, p[3], LegacyDates.parse(p[3]), p[4], LegacyDates.parse(p[4]));
+                    break;
+                default:
+                    return null;
+            }
+            if (isDone) {
+                t.markAsDone();
+            }
+            return t;
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+}
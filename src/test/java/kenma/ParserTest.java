@@ -4,6 +4,31 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ParserTest {
+    /** Commands the original parser knew, valid and not; {@link Parser} must answer each one the same. */
+    private static final String[] LEGACY_INPUTS = {
+        "bye", "BYE", "  Bye  ", "bye now", "list", "LiSt", "list\t", "lists",
+        "mark 2", "MARK   12", "mark", "mark ", "mark 0", "mark 01", "mark x", "mark 1 2", "mark -1",
+        "unmark 3", "UNMARK\t3", "unmark", "unmark 0", "delete 7", "Delete 7", "delete", "delete two",
+        "todo read book", "TODO  Read\t\tBook ", "todo", "todo   ", "todoread", "todo \u00a0",
+        "deadline return book /by 2019-12-02 1800", "DEADLINE Return Book /BY 2019-12-02",
+        "deadline return  book   /by   2019-12-02T18:30", "deadline return book /by 2019-12-02 2400",
+        "deadline return book /by 2019-02-31", "deadline return book /by +2019-12-02",
+        "deadline return book /by 10000-01-01", "deadline return book /by -2019-12-02",
+        "deadline return book /by 0000-01-01", "deadline return book /by 2019-12-02 2460",
+        "deadline return book", "deadline /by 2019-12-02", "deadline return book /by",
+        "deadline return book /by ", "deadline a /by 2019-12-02 /by 2019-12-03", "deadline a/by 2019-12-02",
+        "deadline return book /by next week", "deadline return book /by 2/12/2019",
+        "event fair /from 2019-12-02 0900 /to 2019-12-04", "EVENT Fair /FROM 2019-12-02 /To 2019-12-04 1800",
+        "event fair /from 2019-12-02T09:00 /to 2019-12-02T10:00", "event fair /from 2019-12-04 /to 2019-12-02",
+        "event fair /from 2019-12-02 /to 2019-12-02", "event fair /to 2019-12-04", "event fair /from 2019-12-02",
+        "event /from 2019-12-02 /to 2019-12-04", "event fair /from /to 2019-12-04",
+        "event fair /from 2019-12-02 /to", "event fair /to 2019-12-04 /from 2019-12-02",
+        "event fair /from 2019-12-02 /from 2019-12-03 /to 2019-12-04", "event fair /from monday /to tuesday",
+        "event", "on 2019-12-02", "ON  2019-12-02 1800", "on 2019-12-02T18:00", "on 2019-12-02 2019-12-09",
+        "on 2019-12-09 2019-12-02", "on 2019-12-02 2019-13-09", "on 2019-12-02 1800 2019-12-09",
+        "on 2019-02-31", "on next week", "on", "on ", "sort", "sort Date", "SORT   name", "sorted",
+        "find book", "FIND  Book  Club", "find", "find ", "findbook", "blah", "hello world", "MAR\u212A 1",
+    };
 
     @Test
     void parse_deadline_withDateTime() throws DukeException {
@@ -22,4 +47,44 @@ public class ParserTest {
         assertEquals("2019-12-02 1800", p.b);
         assertEquals("2019-12-02 2000", p.c);
     }
+
+    @Test
+    void parse_indexArgs_takeSelectionPathOnlyForListsAndRanges() {
+        assertEquals("3-500", Parser.parse("delete 3-500").a);
+        assertEquals("1,4,9", Parser.parse("mark 1,4,9").a);
+        assertEquals("where done", Parser.parse("delete WHERE DONE").a);
+        DukeException e = assertThrows(DukeException.class, () -> Parser.parse("mark -1"));
+        assertEquals("Index must be a positive integer: mark <index>.", e.getMessage());
+    }
+
+    @Test
+    void parse_foldsCaseAndCollapsesWhitespace() {
+        Parser.Parsed p = Parser.parse("  DeadLine\tReturn   Book /BY\n2019-12-02T18:30 ");
+        assertEquals(Parser.Command.DEADLINE, p.cmd);
+        assertEquals("Return Book", p.a);
+        assertEquals("2019-12-02T18:30", p.b);
+        assertEquals(Parser.Command.UNDO, Parser.parse(" UNDO ").cmd);
+        assertEquals(Parser.Command.REDO, Parser.parse("Redo").cmd);
+        assertEquals(Parser.Command.MARK, Parser.parse("MAR\u212A 1").cmd);
+        DukeException e = assertThrows(DukeException.class, () -> Parser.parse("deadline a /by +2019-12-02"));
+        assertEquals("Invalid date/time: +2019-12-02. Try formats like: yyyy-MM-dd HHmm (e.g., 2025-09-14 1300).",
+                e.getMessage());
+    }
+
+    @Test
+    void parse_agreesWithLegacyParser() {
+        for (String input : LEGACY_INPUTS) {
+            assertEquals(outcome(() -> LegacyParser.parse(input)), outcome(() -> Parser.parse(input)), input);
+        }
+    }
+
+    /** The parsed command and arguments, or the error message. */
+    private static String outcome(java.util.function.Supplier<Parser.Parsed> parse) {
+        try {
+            Parser.Parsed p = parse.get();
+            return p.cmd + " [" + p.a + "] [" + p.b + "] [" + p.c + "]";
+        } catch (DukeException e) {
+            return "error: " + e.getMessage();
+        }
+    }
 }
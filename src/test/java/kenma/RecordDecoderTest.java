@@ -0,0 +1,76 @@
+package kenma;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordDecoderTest {
+    private static final String[] RECORDS = {
+        "T | 0 | read book",
+        "T | 1 | read book",
+        "T|1|read book",
+        "  T  |  0  |   padded   description  ",
+        "T\t|\t1\t|\ttabs",
+        "T | 0 | pipes | ignored | past | the | fifth",
+        "D | 0 | return book | 2019-12-02",
+        "D | 1 | return book | 2019-12-02 1800",
+        "D | 0 | return book |   2019-12-02 1800   ",
+        "D | 0 | month end | 2019-02-31",
+        "D | 0 | leap day | 2020-02-30 0900",
+        "D | 0 | midnight | 2019-12-31 2400",
+        "D | 0 | free text | next week",
+        "D | 0 | near miss | 2019-13-01",
+        "D | 0 | bad minute | 2019-12-02 2460",
+        "E | 0 | fair | 2019-12-02 0900 | 2019-12-04",
+        "E | 1 | late night | 2019-12-02 2200 | 2019-12-02 2400",
+        "E | 0 | clamped | 2019-04-31 | 2019-05-02",
+        "E | 0 | backwards | 2019-12-04 | 2019-12-02",
+        "E | 0 | text times | monday | tuesday",
+        "D | 0 | missing by",
+        "E | 0 | missing to | 2019-12-02",
+        "X | 0 | unknown type",
+        "TT | 0 | long type",
+        "T | 0 |   ",
+        "T | 0",
+        "",
+        "   ",
+        "read book",
+    };
+
+    @Test
+    void decode_agreesWithLegacyDecoder() {
+        RecordDecoder decoder = new RecordDecoder();
+        for (String record : RECORDS) {
+            assertEquals(describe(LegacyDecoder.decode(record)), describe(decoder.decode(record)), record);
+        }
+    }
+
+    @Test
+    void decode_keepsRawTextAndClampsDays() {
+        Deadline d = (Deadline) new RecordDecoder().decode("D | 0 | month end | 2019-02-31");
+        assertEquals("2019-02-31", d.getBy());
+        assertEquals(java.time.LocalDate.of(2019, 2, 28), d.getDueDate());
+        Deadline midnight = (Deadline) new RecordDecoder().decode("D | 0 | midnight | 2019-12-31 2400");
+        assertEquals(java.time.LocalDateTime.of(2020, 1, 1, 0, 0), midnight.getDueDateTime());
+    }
+
+    /** Everything a decoded task carries that a caller can observe. */
+    private static String describe(Task t) {
+        if (t == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(t.getClass().getSimpleName())
+                .append(' ').append(t.isDone())
+                .append(" [").append(t.getDescription()).append("] ").append(t);
+        if (t instanceof Deadline) {
+            Deadline d = (Deadline) t;
+            sb.append(" by=").append(d.getBy()).append(' ').append(d.getDueDate()).append(' ').append(d.getDueDateTime());
+        } else if (t instanceof Event) {
+            Event e = (Event) t;
+            sb.append(" from=").append(e.getFrom()).append(' ').append(e.getFromDate()).append(' ')
+                    .append(e.getFromDateTime())
+                    .append(" to=").append(e.getTo()).append(' ').append(e.getToDate()).append(' ')
+                    .append(e.getToDateTime());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,114 @@
+package kenma;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class SortedViewsTest {
+    private static final String[] NAMES = { "read", "Read", "essay", "Zoo", "apple", "Apple" };
+
+    @Test
+    void sorted_matchesStableResortThroughMarksRemovesAndInserts() {
+        Random rnd = new Random(11);
+        TaskList tasks = new TaskList();
+        List<Task> expected = new ArrayList<>();
+        for (int step = 0; step < 3_000; step++) {
+            int op = rnd.nextInt(12);
+            if (op < 4 || expected.isEmpty()) {
+                Task t = randomTask(rnd, step);
+                tasks.add(t);
+                expected.add(t);
+            } else if (op < 6) {
+                int idx = 1 + rnd.nextInt(expected.size());
+                assertSame(expected.remove(idx - 1), tasks.remove(idx));
+            } else if (op < 7) {
+                Task t = randomTask(rnd, step);
+                int idx = 1 + rnd.nextInt(expected.size() + 1);
+                tasks.insert(idx, t);
+                expected.add(idx - 1, t);
+            } else if (op < 11) {
+                int idx = 1 + rnd.nextInt(expected.size());
+                if (expected.get(idx - 1).isDone()) {
+                    tasks.unmark(idx);
+                } else {
+                    tasks.mark(idx);
+                }
+            } else {
+                int from = 1 + rnd.nextInt(expected.size());
+                int to = Math.min(expected.size(), from + rnd.nextInt(5));
+                tasks.setDoneAll(Selection.parse(from + "-" + to, expected.size()), rnd.nextBoolean());
+            }
+            if (step % 20 == 0) {
+                for (TaskList.SortKey key : TaskList.SortKey.values()) {
+                    assertEquals(resort(expected, key), tasks.sorted(key), "sort " + key);
+                }
+            }
+        }
+    }
+
+    /** Stable sort with the comparators {@code sort} used before the views existed. */
+    private static List<Task> resort(List<Task> tasks, TaskList.SortKey key) {
+        List<Task> out = new ArrayList<>(tasks);
+        switch (key) {
+            case NAME: {
+                out.sort((a, b) -> a.getDescription().compareToIgnoreCase(b.getDescription()));
+                break;
+            }
+            case STATUS: {
+                out.sort((a, b) -> Boolean.compare(a.isDone(), b.isDone()));
+                break;
+            }
+            default: {
+                out.sort(Comparator.comparing(SortedViewsTest::time, Comparator.nullsLast(Comparator.naturalOrder())));
+                break;
+            }
+        }
+        return out;
+    }
+
+    private static LocalDateTime time(Task t) {
+        if (t instanceof Deadline) {
+            Deadline d = (Deadline) t;
+            if (d.getDueDateTime() != null) {
+                return d.getDueDateTime();
+            }
+            if (d.getDueDate() != null) {
+                return d.getDueDate().atStartOfDay();
+            }
+        }
+        if (t instanceof Event) {
+            Event e = (Event) t;
+            if (e.getFromDateTime() != null) {
+                return e.getFromDateTime();
+            }
+            if (e.getFromDate() != null) {
+                return e.getFromDate().atStartOfDay();
+            }
+        }
+        return null;
+    }
+
+    private static Task randomTask(Random rnd, int i) {
+        String desc = NAMES[rnd.nextInt(NAMES.length)] + " " + (i % 7) + " #" + i;
+        LocalDate day = LocalDate.of(2025, 10, 1).plusDays(rnd.nextInt(5));
+        switch (rnd.nextInt(4)) {
+            case 0: {
+                return new Todo(desc);
+            }
+            case 1: {
+                return new Deadline(desc, day.toString());
+            }
+            case 2: {
+                return new Deadline(desc, rnd.nextBoolean() ? day + " 1830" : "next week");
+            }
+            default: {
+                return new Event(desc, day + " 0900", day.plusDays(1) + " 1700");
+            }
+        }
+    }
+}
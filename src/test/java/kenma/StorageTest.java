@@ -0,0 +1,94 @@
+package kenma;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+public class StorageTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void journaled_replaysRecordsOnTopOfSnapshot() {
+        String path = dir.resolve("kenma.txt").toString();
+        Storage storage = new Storage(path, true);
+        storage.save(List.of(new Todo("read book"), new Deadline("return book", "2019-12-02")));
+        storage.logAdd(new Todo("write essay"));
+        storage.logMark(2);
+        storage.logRemove(1);
+        storage.close();
+
+        List<Task> loaded = new Storage(path, true).load();
+        assertEquals(2, loaded.size());
+        assertEquals("return book", loaded.get(0).getDescription());
+        assertTrue(loaded.get(0).isDone());
+        assertEquals("write essay", loaded.get(1).getDescription());
+    }
+
+    @Test
+    void journaled_saveFoldsJournalIntoSnapshot() {
+        String path = dir.resolve("kenma.txt").toString();
+        Storage storage = new Storage(path, true);
+        storage.logAdd(new Todo("read book"));
+        storage.save(List.of(new Todo("read book")));
+        storage.close();
+
+        assertEquals(1, new Storage(path, true).load().size());
+    }
+
+    @Test
+    void binary_roundTripKeepsRawTextAndPipes() {
+        String path = dir.resolve("kenma.bin").toString();
+        Storage storage = new Storage(path);
+        assertEquals(Storage.Format.BINARY, storage.getFormat());
+        storage.save(List.of(new Todo("a | b"), new Deadline("return book", "Monday"),
+                new Event("seminar", "2019-12-02 1800", "2019-12-03")));
+
+        List<Task> loaded = new Storage(path).load();
+        assertEquals("a | b", loaded.get(0).getDescription());
+        assertEquals("Monday", ((Deadline) loaded.get(1)).getBy());
+        assertEquals("2019-12-02 1800", ((Event) loaded.get(2)).getFrom());
+        assertEquals(LocalDate.of(2019, 12, 3), ((Event) loaded.get(2)).getToDate());
+    }
+
+    @Test
+    void converter_leavesItsSourceUntouched_andRejectsAMissingOne() throws Exception {
+        String source = dir.resolve("kenma.txt").toString();
+        Storage storage = new Storage(source, true);
+        storage.save(List.of(new Todo("read book")));
+        storage.logAdd(new Todo("write essay"));
+        storage.close();
+        Files.writeString(dir.resolve("kenma.txt.journal.1-2"), "A | T | 0 | stale\n");
+        Map<Path, String> before = contents(dir);
+
+        assertEquals(2, StorageConverter.convert(source, dir.resolve("out/kenma.bin").toString()));
+        Map<Path, String> after = contents(dir);
+        after.keySet().removeIf(p -> p.startsWith(dir.resolve("out")));
+        assertEquals(before, after);
+        assertEquals(2, new Storage(dir.resolve("out/kenma.bin").toString()).load().size());
+
+        Path missing = dir.resolve("missing/none.txt");
+        assertThrows(DukeException.class, () -> StorageConverter.convert(missing.toString(), source));
+        assertFalse(Files.exists(missing.getParent()));
+    }
+
+    private static Map<Path, String> contents(Path dir) throws Exception {
+        Map<Path, String> out = new TreeMap<>();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                if (Files.isRegularFile(p)) {
+                    out.put(p, Files.readString(p));
+                }
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,103 @@
+package kenma;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TaskListConcurrencyTest {
+    private static final int READERS = 4;
+    private static final int WRITES = 20_000;
+
+    @Test
+    void readers_seeConsistentSnapshotsWhileWriterAppends() throws Exception {
+        TaskList tasks = new TaskList();
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(READERS + 1);
+        try {
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int r = 0; r < READERS; r++) {
+                readers.add(pool.submit(() -> {
+                    start.await();
+                    int lastSize = 0;
+                    int reads = 0;
+                    while (isWriting.get() || reads == 0) {
+                        List<Task> snap = tasks.snapshot();
+                        assertTrue(snap.size() >= lastSize, "snapshot went backwards");
+                        for (int i = lastSize; i < snap.size(); i++) {
+                            assertEquals("task " + i, snap.get(i).getDescription());
+                        }
+                        lastSize = snap.size();
+                        List<Task> byName = tasks.sorted(TaskList.SortKey.NAME);
+                        assertEquals(byName.size(), byName.stream().distinct().count());
+                        reads++;
+                    }
+                    return reads;
+                }));
+            }
+            Future<?> writer = pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < WRITES; i++) {
+                    tasks.add(new Todo("task " + i));
+                }
+                isWriting.set(false);
+                return null;
+            });
+            start.countDown();
+            writer.get(60, TimeUnit.SECONDS);
+            for (Future<Integer> reader : readers) {
+                assertTrue(reader.get(60, TimeUnit.SECONDS) > 0);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(WRITES, tasks.size());
+        assertEquals(WRITES, tasks.sorted(TaskList.SortKey.NAME).size());
+    }
+
+    @Test
+    void concurrentWriters_areSerialized() throws Exception {
+        TaskList tasks = new TaskList();
+        tasks.find("warm"); // keep the index in step with every write below
+        ExecutorService pool = Executors.newFixedThreadPool(READERS);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < READERS; w++) {
+                int id = w;
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < WRITES / READERS; i++) {
+                        tasks.add(new Todo("writer " + id + " item " + i));
+                        if (i % 3 == 0) {
+                            tasks.remove(1); // never out of range: this writer just added one
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        int perWriter = WRITES / READERS - (WRITES / READERS + 2) / 3;
+        assertEquals(READERS * perWriter, tasks.size());
+        assertEquals(tasks.size(), tasks.find("item").size());
+        assertEquals(tasks.snapshot(), tasks.find("writer"));
+    }
+
+    @Test
+    void sorted_reflectsMarksAfterCaching() {
+        TaskList tasks = new TaskList(List.of(new Todo("b"), new Todo("a")));
+        assertEquals("b", tasks.sorted(TaskList.SortKey.STATUS).get(0).getDescription());
+        tasks.mark(1);
+        assertEquals("a", tasks.sorted(TaskList.SortKey.STATUS).get(0).getDescription());
+    }
+}
@@ -0,0 +1,57 @@
+package kenma;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+
+public class TaskTest {
+
+    @Test
+    void equals_ignoresCaseAndSurroundingWhitespace_forEveryType() {
+        assertSameKey(new Todo("Read Book"), new Todo("  read book "));
+        assertSameKey(new Deadline("Return Book", "2019-12-02 1800"), new Deadline(" return book", " 2019-12-02 1800 "));
+        assertSameKey(new Deadline("return book", "Next Week"), new Deadline("RETURN BOOK ", " next week"));
+        assertSameKey(new Event("Fair", "2019-12-02 0900", "2019-12-04"), new Event("fair ", "2019-12-02 0900", "2019-12-04"));
+        assertSameKey(new Event("Fair", "2019-12-02", "2019-12-04 1800"), new Event(" FAIR", " 2019-12-02", "2019-12-04 1800 "));
+
+        Todo done = new Todo("read book");
+        done.markAsDone();
+        assertSameKey(done, new Todo("Read book"));
+    }
+
+    @Test
+    void equals_tellsTypesDescriptionsAndTimesApart() {
+        assertNotEquals(new Todo("read book"), new Todo("read  book"));
+        assertNotEquals(new Todo("return book"), new Deadline("return book", "2019-12-02"));
+        assertNotEquals(new Deadline("return book", "2019-12-02"), new Deadline("return book", "2019-12-03"));
+        assertNotEquals(new Deadline("return book", "2019-12-02"), new Deadline("return book", "2019-12-02 1800"));
+        assertNotEquals(new Event("fair", "2019-12-02", "2019-12-04"), new Event("fair", "2019-12-02", "2019-12-05"));
+        assertNotEquals(new Event("fair", "2019-12-02", "2019-12-04"), new Event("fair", "2019-12-01", "2019-12-04"));
+        assertNotEquals(new Todo("read book"), "read book");
+    }
+
+    @Test
+    void add_keepsDuplicateCountsAcrossRemoveAndReAdd() {
+        // A loaded file may already hold the same task twice.
+        TaskList list = new TaskList(List.of(new Todo("a"), new Todo("A"), new Todo("b")));
+        assertThrows(DukeException.class, () -> list.add(new Todo("a ")));
+
+        list.remove(1);
+        assertThrows(DukeException.class, () -> list.add(new Todo("a")));
+        list.remove(1);
+        list.add(new Todo(" a"));
+        assertThrows(DukeException.class, () -> list.add(new Todo("A")));
+
+        list.remove(2);
+        list.add(new Todo("A"));
+        assertEquals(2, list.size());
+        assertEquals("A", list.get(2).getDescription());
+        assertThrows(DukeException.class, () -> list.add(new Todo("b ")));
+    }
+
+    private static void assertSameKey(Task a, Task b) {
+        assertEquals(a, b);
+        assertEquals(b, a);
+        assertEquals(a.hashCode(), b.hashCode());
+    }
+}
@@ -0,0 +1,59 @@
+package kenma;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Path;
+
+public class TenantRegistryTest {
+
+    @TempDir
+    Path dir;
+
+    private TenantRegistry registry(int maxEntries, long maxBytes) {
+        return new TenantRegistry(t -> new Kenma(new Storage(dir.resolve(t + ".txt").toString())),
+                maxEntries, maxBytes);
+    }
+
+    @Test
+    void with_evictsLeastRecentlyUsedPastEntryBudget() {
+        TenantRegistry registry = registry(2, Long.MAX_VALUE);
+        registry.with("a", k -> k.getReply("todo read book"));
+        registry.with("b", k -> k.getReply("list"));
+        registry.with("a", k -> k.getReply("list"));
+        registry.with("c", k -> k.getReply("list")); // evicts b, not the recently used a
+
+        assertEquals(2, registry.size());
+        assertEquals(1, registry.hits());
+        assertEquals(3, registry.misses());
+        assertEquals(1, registry.evictions());
+        registry.with("a", k -> k.getReply("list"));
+        assertEquals(2, registry.hits());
+    }
+
+    @Test
+    void with_reloadsEvictedTenantFromItsFile() {
+        TenantRegistry registry = registry(1, Long.MAX_VALUE);
+        registry.with("a", k -> k.getReply("todo read book"));
+        registry.with("b", k -> k.getReply("todo write essay"));
+
+        int reloaded = registry.with("a", Kenma::taskCount);
+        assertEquals(1, reloaded);
+        assertEquals(2, registry.evictions());
+        registry.close();
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void with_evictsPastByteBudget() {
+        long oneEmpty = TenantRegistry.ENGINE_BYTES;
+        TenantRegistry registry = registry(100, oneEmpty * 2 + TenantRegistry.TASK_BYTES);
+        registry.with("a", k -> k.getReply("todo read book"));
+        registry.with("b", k -> k.getReply("list"));
+        assertEquals(0, registry.evictions());
+
+        registry.with("c", k -> k.getReply("list"));
+        assertEquals(1, registry.evictions());
+        assertEquals(oneEmpty * 2, registry.bytes());
+    }
+}
@@ -0,0 +1,89 @@
+package kenma;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class UiTest {
+    private static final String LINE = "____________________________________________________________";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void showList_andShowError_autoFlush_writeEachMessageAtOnce() {
+        StringWriter out = new StringWriter();
+        Ui ui = new Ui(out, true);
+        Todo done = new Todo("read book");
+        done.markAsDone();
+
+        ui.showList(List.of(done, new Deadline("return book", "2019-12-02 1800")));
+        assertEquals(lines(LINE, " Here are the tasks in your list:", " 1.[T][X] read book",
+                " 2.[D][ ] return book (by: Dec 2 2019 18:00)", LINE), out.toString());
+
+        out.getBuffer().setLength(0);
+        ui.showList(List.of());
+        assertEquals(lines(LINE, " No tasks in your list.", LINE), out.toString());
+
+        out.getBuffer().setLength(0);
+        ui.showError("Error: Duplicate task: [T][X] read book");
+        assertEquals(lines(LINE, " Error: Duplicate task: [T][X] read book", LINE), out.toString());
+    }
+
+    @Test
+    void withoutAutoFlush_holdsMessagesUntilFlush_unlessTheyAreLarge() {
+        StringWriter out = new StringWriter();
+        Ui ui = new Ui(out, false);
+
+        ui.showError("Index out of range.");
+        ui.showList(List.of(new Todo("a")));
+        assertEquals("", out.toString());
+        ui.flush();
+        assertEquals(lines(LINE, " Index out of range.", LINE, LINE, " Here are the tasks in your list:", " 1.[T][ ] a",
+                LINE), out.toString());
+
+        out.getBuffer().setLength(0);
+        List<Task> many = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            many.add(new Todo("task " + i));
+        }
+        ui.showList(many);
+        String partial = out.toString();
+        assertTrue(partial.startsWith(lines(LINE, " Here are the tasks in your list:", " 1.[T][ ] task 1")));
+        assertFalse(partial.contains(" 1000.[T][ ] task 1000"));
+        ui.flush();
+        assertTrue(out.toString().endsWith(lines(" 1000.[T][ ] task 1000", LINE)));
+    }
+
+    @Test
+    void onReply_rendersTheSameIndentedRows_inTheWindowAndOnTheConsole() {
+        Kenma engine = new Kenma(dir.resolve("kenma.txt").toString());
+        engine.getResponse("todo read book");
+        engine.getResponse("deadline return book /by 2019-12-02 1800");
+        engine.getResponse("event fair /from 2019-12-01 /to 2019-12-03");
+
+        String nl = System.lineSeparator();
+        assertEquals("Tasks on 2019-12-02:" + nl + " 2.[D][ ] return book (by: Dec 2 2019 18:00)" + nl
+                + " 3.[E][ ] fair (from: Dec 1 2019 to: Dec 3 2019)", engine.getResponse("on 2019-12-02"));
+
+        StringWriter out = new StringWriter();
+        new Ui(out, true).showReply(engine.getReply("on 2019-12-02"));
+        assertEquals(engine.getResponse("on 2019-12-02") + nl, out.toString());
+
+        out.getBuffer().setLength(0);
+        new Ui(out, true).showReply(Reply.tasks("Here are the tasks in your list:", List.of()));
+        assertEquals(Reply.tasks("Here are the tasks in your list:", List.of()) + nl, out.toString());
+    }
+
+    private static String lines(String... lines) {
+        StringBuilder sb = new StringBuilder();
+        for (String l : lines) {
+            sb.append(l).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,50 @@
+package kenma;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Path;
+import java.util.List;
+
+public class UndoTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void undoRedo_invertDeleteAndMark_andPersistThroughJournal() {
+        String path = dir.resolve("kenma.txt").toString();
+        Kenma engine = new Kenma(new Storage(path, true));
+        engine.getReply("todo read book");
+        engine.getReply("todo write essay");
+        engine.getReply("todo water plants");
+        engine.getReply("delete 2");
+        engine.getReply("mark 1");
+
+        assertTrue(engine.getResponse("undo").startsWith("Undid mark:"));
+        assertTrue(engine.getResponse("undo").startsWith("Undid delete:"));
+        assertTrue(engine.getResponse("redo").startsWith("Redid delete:"));
+        assertTrue(engine.getResponse("undo").startsWith("Undid delete:"));
+        engine.close();
+
+        List<Task> loaded = new Storage(path, true).load();
+        assertEquals(3, loaded.size());
+        assertEquals("write essay", loaded.get(1).getDescription());
+        assertFalse(loaded.get(0).isDone());
+    }
+
+    @Test
+    void newChange_clearsRedo_andHistoryIsBounded() {
+        UndoLog log = new UndoLog(2);
+        Task t = new Todo("read book");
+        log.record(UndoLog.Kind.ADD, 1, t);
+        log.record(UndoLog.Kind.MARK, 1, t);
+        log.record(UndoLog.Kind.UNMARK, 1, t);
+        assertEquals(2, log.undoSize());
+        log.undone();
+        assertEquals(1, log.redoSize());
+        log.record(UndoLog.Kind.DELETE, 1, t);
+        assertNull(log.nextRedo());
+        assertEquals("Error: Nothing to redo.", new Kenma(dir.resolve("empty.txt").toString()).getResponse("redo"));
+    }
+}
@@ -0,0 +1,85 @@
+package kenma;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+public class WriteBehindSaverTest {
+
+    @TempDir
+    Path dir;
+
+    /** Counts whole-file saves and fails them while {@code isFailing} is set. */
+    private static final class FlakyStorage extends Storage {
+        int saves;
+        volatile boolean isFailing;
+
+        FlakyStorage(String path) {
+            super(path);
+        }
+
+        @Override
+        public synchronized void save(List<Task> tasks) {
+            if (isFailing) {
+                throw new DukeException("disk full");
+            }
+            saves++;
+            super.save(tasks);
+        }
+    }
+
+    @Test
+    void burstOfMutations_savesOnce() {
+        FlakyStorage storage = new FlakyStorage(dir.resolve("kenma.txt").toString());
+        List<Task> tasks = new ArrayList<>();
+        WriteBehindSaver saver = new WriteBehindSaver(storage, () -> List.copyOf(tasks), Duration.ofHours(1));
+        for (int i = 1; i <= 50; i++) {
+            tasks.add(new Todo("task " + i));
+            saver.markDirty();
+        }
+        assertEquals(0, storage.saves);
+
+        saver.close();
+        assertEquals(1, storage.saves);
+        assertEquals(50, storage.load().size());
+    }
+
+    @Test
+    void flushAndClose_reportAFailedSave_andKeepChangesPending() {
+        FlakyStorage storage = new FlakyStorage(dir.resolve("kenma.txt").toString());
+        List<Task> tasks = new ArrayList<>(List.of(new Todo("a")));
+        WriteBehindSaver saver = new WriteBehindSaver(storage, () -> List.copyOf(tasks), Duration.ofHours(1));
+        saver.markDirty();
+        storage.isFailing = true;
+
+        DukeException e = assertThrows(DukeException.class, saver::flush);
+        assertEquals("Failed to flush tasks: disk full", e.getMessage());
+        assertThrows(DukeException.class, saver::close);
+
+        storage.isFailing = false;
+        saver.flush();
+        assertEquals(1, storage.saves);
+        assertEquals(1, storage.load().size());
+    }
+
+    @Test
+    void bye_flushesPendingChanges_orReportsTheFailure() {
+        FlakyStorage storage = new FlakyStorage(dir.resolve("kenma.txt").toString());
+        Kenma engine = new Kenma(storage);
+        engine.enableWriteBehind(Duration.ofHours(1));
+        engine.getResponse("todo read book");
+        storage.isFailing = true;
+
+        assertEquals("Error: Failed to flush tasks: disk full", engine.getResponse("bye"));
+
+        storage.isFailing = false;
+        assertEquals("Bye. Hope to see you again soon!", engine.getResponse("bye"));
+        assertEquals(1, storage.saves);
+        engine.close();
+        assertEquals("read book", storage.load().get(0).getDescription());
+    }
+}